@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Time from `java` launch to the first accepted WebSocket handshake (HTTP 101 on /ws), over several
+# cold starts. Each run uses a fresh in-memory database so runs do not influence each other.
+#
+# Usage: JWT_SECRET=... bench/startup-benchmark.sh [runs] [java options...]
+#   plain jar:   bench/startup-benchmark.sh 5
+#   fast start:  JAR=application/lucid-arena-backend.jar bench/startup-benchmark.sh 5 \
+#                  -XX:AOTCache=app.aot -Dspring.aot.enabled=true -Dspring.profiles.active=prod,fast-start
+# Dockerfile.fast-start also runs it once, with -XX:AOTMode=record, as the training run of the AOT cache.
+set -euo pipefail
+
+JAR=${JAR:-target/lucid-arena-backend-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-18080}
+TIMEOUT_S=${TIMEOUT_S:-120}
+RUNS=${1:-5}
+shift || true
+: "${JWT_SECRET:?JWT_SECRET must be set, at least 32 bytes}"
+export GOOGLE_CLIENT_ID=${GOOGLE_CLIENT_ID:-benchmark}
+export GOOGLE_CLIENT_SECRET=${GOOGLE_CLIENT_SECRET:-benchmark}
+export JWT_SECRET
+
+b64url() { openssl base64 -A | tr '+/' '-_' | tr -d '='; }
+
+# HS256 token the server accepts for the handshake
+header=$(printf '{"alg":"HS256","typ":"JWT"}' | b64url)
+payload=$(printf '{"sub":"startup-benchmark","exp":%d}' $(( $(date +%s) + 3600 )) | b64url)
+signature=$(printf '%s.%s' "$header" "$payload" | openssl dgst -sha256 -hmac "$JWT_SECRET" -binary | b64url)
+token="$header.$payload.$signature"
+
+now_ms() { date +%s%3N; }
+
+# Prints the status and the seconds until the response started: after a 101 curl keeps reading the
+# upgraded connection until --max-time, so its total time says nothing about the server
+handshake() {
+    curl -s -o /dev/null -w '%{http_code} %{time_starttransfer}' --max-time 1 \
+        -H 'Connection: Upgrade' -H 'Upgrade: websocket' \
+        -H 'Sec-WebSocket-Version: 13' -H 'Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==' \
+        -H 'Origin: http://localhost:5173' \
+        "http://localhost:$PORT/ws?access_token=$token" || true
+}
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    java "$@" -jar "$JAR" \
+        --server.port="$PORT" \
+        --spring.datasource.url="jdbc:h2:mem:bench$run" \
+        --lucid.snapshot.path="$(mktemp -u)" \
+        > "startup-run-$run.log" 2>&1 &
+    pid=$!
+    code=""
+    while [ "$code" != "101" ]; do
+        if ! kill -0 "$pid" 2>/dev/null || [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_S * 1000 )) ]; then
+            echo "run $run: server did not accept a WebSocket connection, see startup-run-$run.log" >&2
+            kill "$pid" 2>/dev/null || true
+            exit 1
+        fi
+        sleep 0.05
+        sent=$(now_ms)
+        read -r code ttfb <<< "$(handshake)"
+    done
+    elapsed=$(( sent - start + $(awk -v s="$ttfb" 'BEGIN { printf "%d", s * 1000 }') ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "run $run: first WebSocket connection accepted after $elapsed ms"
+    results+=("$elapsed")
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "min ${sorted[0]} ms, median ${sorted[$(( RUNS / 2 ))]} ms, max ${sorted[$(( RUNS - 1 ))]} ms over $RUNS runs"
@@ -3,14 +3,16 @@ package fr.gamesonweb.lucid_arena_backend.auth;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,8 +23,6 @@ import org.springframework.web.client.RestTemplate;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -33,21 +33,21 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
-    @Value("${spring.security.oauth2.client.registration.google.client-id}")
-    private String googleClientId;
     @Value("${spring.security.oauth2.resourceserver.jwt.secret}")
     private String jwtSecret;
+    // Google accounts allowed on /api/admin
+    @Value("${lucid.admin.emails:}")
+    private Set<String> adminEmails;
 
+    @Lazy
     private final RestTemplate restTemplate;
+    @Lazy
+    private final GoogleIdTokenVerifier verifier;
 
     @PostMapping("/google")
     public ResponseEntity<?> authenticateWithGoogle(@RequestBody Map<String, String> payload) throws GeneralSecurityException, IOException {
         String token = payload.get("token");
         // Vérifier le token avec Google
-        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), new GsonFactory())
-                .setAudience(Collections.singletonList(googleClientId))
-                .build();
-
         GoogleIdToken idToken = verifier.verify(token);
         if (idToken != null) {
             GoogleIdToken.Payload idTokenPayload = idToken.getPayload();
@@ -58,6 +58,7 @@ public class AuthController {
             String jwt = Jwts.builder()
                     .subject(sub)
                     .claim("email", email)
+                    .claim("roles", adminEmails.contains(email) ? List.of("ADMIN") : List.of())
                     .issuedAt(new Date())
                     .expiration(new Date(System.currentTimeMillis() + 86400000))
                     .signWith( key, SignatureAlgorithm.HS256)
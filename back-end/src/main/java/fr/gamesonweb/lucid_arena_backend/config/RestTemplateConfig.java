@@ -2,11 +2,14 @@ package fr.gamesonweb.lucid_arena_backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
+    // Only used for Discord notifications, created on the first one
     @Bean
+    @Lazy
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
@@ -0,0 +1,18 @@
+package fr.gamesonweb.lucid_arena_backend.config;
+
+import fr.gamesonweb.lucid_arena_backend.service.LobbyReaper;
+import fr.gamesonweb.lucid_arena_backend.service.LobbySnapshotStore;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // Created at startup even with spring.main.lazy-initialization: the store restores the lobbies of the
+    // previous run, and nothing else references the reaper
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(LobbySnapshotStore.class, LobbyReaper.class);
+    }
+}
@@ -1,12 +1,19 @@
 package fr.gamesonweb.lucid_arena_backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 import fr.gamesonweb.lucid_arena_backend.interceptor.AuthHandshakeInterceptor;
+import fr.gamesonweb.lucid_arena_backend.interceptor.InboundLatencyInterceptor;
+import fr.gamesonweb.lucid_arena_backend.interceptor.InboundRateLimitInterceptor;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -15,11 +22,35 @@ import lombok.RequiredArgsConstructor;
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final AuthHandshakeInterceptor authHandshakeInterceptor;
+    private final InboundRateLimitInterceptor inboundRateLimitInterceptor;
+    private final InboundLatencyInterceptor inboundLatencyInterceptor;
+
+    @Value("${lucid.ws.inbound.threads:8}")
+    private int inboundThreads;
+    @Value("${lucid.ws.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("clientInbound-");
+        executor.setCorePoolSize(inboundThreads);
+        executor.setMaxPoolSize(inboundThreads);
+        executor.setQueueCapacity(inboundQueueCapacity);
+        // Game commands are shed by the interceptor before the queue is full, the last tenth of it is left
+        // to CONNECT, SUBSCRIBE, DISCONNECT... which must never be dropped: past that they run on the socket reader
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        inboundRateLimitInterceptor.watchInboundQueue(executor::getQueueSize,
+                inboundQueueCapacity - inboundQueueCapacity / 10);
+        registration.taskExecutor(executor);
+        registration.interceptors(inboundRateLimitInterceptor, inboundLatencyInterceptor);
     }
 
     @Override
@@ -0,0 +1,50 @@
+package fr.gamesonweb.lucid_arena_backend.controller;
+
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyCountsDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyDetailDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyPageDTO;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyInspector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+
+// Read only: nothing here changes a lobby or sends to its players
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final LobbyInspector lobbyInspector;
+
+    @GetMapping("/lobbies")
+    public LobbyPageDTO lobbies(@RequestParam(required = false) String status,
+                                @RequestParam(required = false) String player,
+                                @RequestParam(defaultValue = "0") int minPlayers,
+                                @RequestParam(required = false) String after,
+                                @RequestParam(defaultValue = "50") int size) {
+        return lobbyInspector.list(
+                status == null ? null : status.toUpperCase(Locale.ROOT),
+                player,
+                minPlayers,
+                after,
+                Math.clamp(size, 1, MAX_PAGE_SIZE));
+    }
+
+    @GetMapping("/lobbies/{lobbyId}")
+    public ResponseEntity<LobbyDetailDTO> lobby(@PathVariable String lobbyId) {
+        LobbyDetailDTO detail = lobbyInspector.detail(lobbyId);
+        return detail != null ? ResponseEntity.ok(detail) : ResponseEntity.status(404).build();
+    }
+
+    @GetMapping("/counts")
+    public LobbyCountsDTO counts() {
+        return lobbyInspector.counts();
+    }
+}
@@ -0,0 +1,67 @@
+package fr.gamesonweb.lucid_arena_backend.controller;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ListPlayerJoinDTO;
+import fr.gamesonweb.lucid_arena_backend.service.BotService;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+// ADMIN only, see SecurityConfig
+@RestController
+@RequestMapping("/api/bots")
+@RequiredArgsConstructor
+public class BotController {
+    private static final int MAX_BOTS_PER_LOBBY = 8;
+    private static final int MAX_SOAK_LOBBIES = 50_000;
+
+    private final BotService botService;
+    private final LobbyService lobbyService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @PostMapping("/lobby/{roomId}")
+    public ResponseEntity<?> addBots(@PathVariable String roomId, @RequestParam(defaultValue = "1") int count) {
+        List<String> added = botService.addBots(roomId, Math.clamp(count, 1, MAX_BOTS_PER_LOBBY));
+        if (added.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Room not found");
+        }
+        // same frame as a player joining, so the lobby screens list the bots
+        messagingTemplate.convertAndSend("/topic/lobby/" + roomId,
+                new ListPlayerJoinDTO(roomId, lobbyService.getPlayers(roomId).stream().toList()));
+        return ResponseEntity.ok(added);
+    }
+
+    // Load test: bot-only lobbies playing full games against the engine
+    @PostMapping("/soak")
+    public ResponseEntity<?> soak(@RequestParam(defaultValue = "100") int lobbies,
+                                  @RequestParam(defaultValue = "4") int botsPerLobby) {
+        int started = botService.startSoak(Math.clamp(lobbies, 1, MAX_SOAK_LOBBIES),
+                Math.clamp(botsPerLobby, 1, MAX_BOTS_PER_LOBBY));
+        return ResponseEntity.ok(Map.of("started", started));
+    }
+
+    @DeleteMapping("/soak")
+    public ResponseEntity<?> stopSoak() {
+        return ResponseEntity.ok(Map.of("stopped", botService.stopSoak()));
+    }
+
+    @GetMapping
+    public ResponseEntity<?> stats() {
+        return ResponseEntity.ok(Map.of(
+                "bots", botService.getBotCount(),
+                "lobbies", botService.getBotLobbyCount(),
+                "soakLobbies", botService.getSoakLobbyCount(),
+                "actions", botService.getActionCount()));
+    }
+}
@@ -1,13 +1,16 @@
 package fr.gamesonweb.lucid_arena_backend.controller;
 
+import fr.gamesonweb.lucid_arena_backend.dto.ResumeDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.ResumeRequestDTO;
 import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.monitoring.GameStageEvent;
 import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
 import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
 import lombok.AllArgsConstructor;
 import lombok.extern.java.Log;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
@@ -17,14 +20,21 @@ import java.security.Principal;
 @Log
 public class GameController {
     private final LobbyService lobbyService;
-    private final SimpMessagingTemplate messaging;
     private final PlayerProfileRepository playerProfileRepository;
 
 
+    // Reply only to the session that pinged, the rest of the lobby already has this state
     @MessageMapping("/game/{roomId}/ping")
-    public void ping(@DestinationVariable String roomId) {
-        GameState state = lobbyService.getGameState(roomId);
-        messaging.convertAndSend("/topic/game/" + roomId, state);
+    @SendToUser(destinations = "/queue/game/{roomId}", broadcast = false)
+    public GameState ping(@DestinationVariable String roomId) {
+        return lobbyService.getStateSnapshot(roomId);
+    }
+
+    // Resuming client: replay what it missed since lastSeq, or a snapshot if that is no longer buffered
+    @MessageMapping("/game/{roomId}/resume")
+    @SendToUser(destinations = "/queue/game/{roomId}/resume", broadcast = false)
+    public ResumeDTO resume(@DestinationVariable String roomId, ResumeRequestDTO request) {
+        return lobbyService.resume(roomId, request.lastSeq());
     }
 
     public record MiniGameResultDTO(
@@ -42,21 +52,15 @@ public class GameController {
             Principal principal
 
     ) {
-        String nickname = playerProfileRepository.findById(principal.getName()).orElseThrow()
-                .getNickname();
-        // stocker le résultat temporairement (en mémoire ou dans un service)
-        lobbyService.addMiniGameResult(lobbyId, nickname, result.miniGameName(), result.score());
-
-        // si tous les joueurs ont renvoyé leur résultat, on calcule le gagnant
-        if (lobbyService.allResultReceived(lobbyId, result.miniGameName())) {
-            MiniGameOutcomeDTO outcome = lobbyService.computeOutcome(lobbyId, result.miniGameName());
-            log.info("Mini game result: " + outcome.miniGameName());
-            messaging.convertAndSend(
-                    "/topic/game/" + lobbyId + "/minigame/outcome",
-                    outcome
-            );
-
-
+        GameStageEvent total = GameStageEvent.begin(lobbyId, "minigame/result", "total");
+        try {
+            GameStageEvent lookup = GameStageEvent.begin(lobbyId, "minigame/result", "lookup");
+            String nickname = playerProfileRepository.findById(principal.getName()).orElseThrow()
+                    .getNickname();
+            lookup.commit();
+            lobbyService.submitMiniGameResult(lobbyId, nickname, result.miniGameName(), result.score());
+        } finally {
+            total.commit();
         }
     }
 }
\ No newline at end of file
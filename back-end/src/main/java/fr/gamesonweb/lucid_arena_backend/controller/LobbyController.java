@@ -1,15 +1,18 @@
 package fr.gamesonweb.lucid_arena_backend.controller;
 
+import fr.gamesonweb.lucid_arena_backend.dto.ChatMessageDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.ChatRequestDTO;
 import fr.gamesonweb.lucid_arena_backend.dto.GameStateDTO;
 import fr.gamesonweb.lucid_arena_backend.dto.ListPlayerJoinDTO;
-import fr.gamesonweb.lucid_arena_backend.dto.MiniGameInstructionDTO;
 import fr.gamesonweb.lucid_arena_backend.dto.PlayerJoinDTO;
 import fr.gamesonweb.lucid_arena_backend.entity.GameState;
-import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+import fr.gamesonweb.lucid_arena_backend.interceptor.InboundRateLimitInterceptor;
+import fr.gamesonweb.lucid_arena_backend.monitoring.GameStageEvent;
 import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import fr.gamesonweb.lucid_arena_backend.service.ChatService;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyBroadcaster;
 import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
 import lombok.AllArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,17 +21,19 @@ import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import java.security.Principal;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
 @Controller
 @RequestMapping("/api/lobby")
@@ -38,6 +43,9 @@ public class LobbyController {
     private final LobbyService lobbyService;
     private final PlayerProfileRepository playerProfileRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final InboundRateLimitInterceptor inboundRateLimitInterceptor;
+    private final LobbyBroadcaster lobbyBroadcaster;
+    private final ChatService chatService;
 
     public record CreateRoomDTO(String roomId) {
     }
@@ -48,7 +56,12 @@ public class LobbyController {
         String nickname = playerProfileRepository.findById(jwt.getSubject()).orElseThrow()
                 .getNickname();
 
-        lobbyService.createRoom(roomId);
+        if (!lobbyService.isAcceptingLobbies()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Server is restarting, try again shortly");
+        }
+        if (!lobbyService.createRoom(roomId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Room already exists, join it instead");
+        }
         lobbyService.addPlayerToRoom(roomId, nickname);
         return ResponseEntity.ok().build();
     }
@@ -74,84 +87,99 @@ public class LobbyController {
         return new ListPlayerJoinDTO(roomId, lobbyService.getPlayers(roomId).stream().toList());
     }
 
+    // Rate limited by InboundRateLimitInterceptor; fanned out in batches by ChatService
+    @MessageMapping("/lobby/{roomId}/chat")
+    public void chat(@DestinationVariable String roomId, ChatRequestDTO message, MessageHeaders headers) {
+        String nickname = lobbyMember(roomId, headers);
+        if (nickname == null) {
+            return;
+        }
+        chatService.post(roomId, nickname, message.text());
+    }
+
+    // Recent chat for a player who just joined, sent to their session only
+    @MessageMapping("/lobby/{roomId}/chat/history")
+    @SendToUser(destinations = "/queue/lobby/{roomId}/chat", broadcast = false)
+    public List<ChatMessageDTO> chatHistory(@DestinationVariable String roomId, MessageHeaders headers) {
+        if (lobbyMember(roomId, headers) == null) {
+            return List.of();
+        }
+        return chatService.history(roomId);
+    }
+
+    // Nickname of the session if it is a player of the lobby, null otherwise (no profile yet, or a stranger)
+    private String lobbyMember(String roomId, MessageHeaders headers) {
+        Map<String, Object> sessionAttributes = (Map<String, Object>) headers.get("simpSessionAttributes");
+        String nickname = sessionAttributes == null ? null : (String) sessionAttributes.get("nickname");
+        if (nickname == null || !lobbyService.getPlayers(roomId).contains(nickname)) {
+            return null;
+        }
+        return nickname;
+    }
+
     @MessageMapping("/lobby/start/{lobbyId}")
     public void handleStart(@DestinationVariable String lobbyId) {
         log.info("Starting game for lobby: " + lobbyId);
-        GameState state = lobbyService.getGameState(lobbyId);
+        GameState state = lobbyService.startGame(lobbyId);
+        if (state == null) {
+            return; // unknown lobby
+        }
         messagingTemplate.convertAndSend("/topic/lobby/" + lobbyId + "/start", state);
     }
 
     // debug
     @PostMapping("/debug/{lobbyId}/broadcast")
     public ResponseEntity<?> debugBroadcast(@PathVariable String lobbyId) {
-        GameState state = lobbyService.getGameState(lobbyId);
-        messagingTemplate.convertAndSend("/topic/game/" + lobbyId, state);
+        lobbyService.broadcastState(lobbyId, lobbyService.getGameState(lobbyId));
         return ResponseEntity.ok("Broadcasted game state to /topic/game/" + lobbyId);
     }
 
+    // debug
+    @GetMapping("/debug/inbound-stats")
+    public ResponseEntity<?> inboundStats() {
+        return ResponseEntity.ok(Map.of(
+                "throttled", inboundRateLimitInterceptor.getThrottledCount(),
+                "rejected", inboundRateLimitInterceptor.getRejectedCount(),
+                "shed", inboundRateLimitInterceptor.getShedCount()));
+    }
+
+    // debug
+    @GetMapping("/debug/outbound-stats")
+    public ResponseEntity<?> outboundStats() {
+        return ResponseEntity.ok(Map.of(
+                "sent", lobbyBroadcaster.getSentFrameCount(),
+                "coalesced", lobbyBroadcaster.getCoalescedFrameCount()));
+    }
+
     @MessageMapping("/game/{lobbyId}/roll")
     public void handleRoll(@DestinationVariable String lobbyId, Principal principal) {
         log.info("Handling roll for lobby: " + lobbyId + " by user: " + principal.getName());
-        String nickname = playerProfileRepository.findById(principal.getName()).orElseThrow()
-                .getNickname();
-        // 1. Récupère l’état
-        GameState state = lobbyService.getGameState(lobbyId);
-
-        // 2. Valide que c’est le bon joueur
-        if (!nickname.equals(state.getPlayers().get(state.getCurrentPlayer()).getNickname())) {
-            throw new IllegalStateException("It's not your turn!");
-        }
-        Random random = new Random();
-        // 3. Calcule le lancer (par exemple 1 à 6)
-        int dice = (random.nextInt(6)) + 1;
-        state.setLastDiceRoll(String.valueOf(dice));
-
-        // get index of player who rolled
-        int currentPlayerIndex = state.getCurrentPlayer();
-        // 4. Met à jour la position du joueur
-        state.getPositions()[currentPlayerIndex] += dice;
-        if (state.getPositions()[currentPlayerIndex] >= state.getBoardTypes().size()) {
-            // Si le joueur dépasse la fin du plateau, il revient au début
-            state.getPositions()[currentPlayerIndex] = state.getPositions()[currentPlayerIndex] % state.getBoardTypes().size();
-        }
-
-        // 5. Met à jour le joueur actuel
-        //
-
-        int position = state.getPositions()[currentPlayerIndex];
-        String tileType = state.getBoardTypes().get(position);
-        String miniGame = "";
-        switch (tileType) {
-            case "multi" -> miniGame = random.nextInt(2) == 0 ? "mini1" : "StarGame";
-            case "solo" -> miniGame = random.nextInt(2) == 0 ? "ClickerGame" : "rainingGame";
-            case "bonus" -> state.getScores()[currentPlayerIndex] += 1;
-            case "malus" -> state.getScores()[currentPlayerIndex] -= 1;
-            default -> throw new IllegalStateException("Unknown tile type: " + tileType);
-        }
-
-        if (miniGame.isEmpty()) {
-            lobbyService.incrementCurrentPlayerOrReset(lobbyId, state);
+        GameStageEvent total = GameStageEvent.begin(lobbyId, "roll", "total");
+        try {
+            roll(lobbyId, principal);
+        } finally {
+            total.commit();
         }
+    }
 
-        PlayerProfile profile = lobbyService.checkIfEndGame(lobbyId);
-        state.setWinner(profile != null ? profile.getNickname() : null);
-        lobbyService.setGameState(lobbyId, state);
-        // 6. Broadcast à tous dans la room
-        messagingTemplate.convertAndSend("/topic/game/" + lobbyId, state);
+    private void roll(String lobbyId, Principal principal) {
+        GameStageEvent lookup = GameStageEvent.begin(lobbyId, "roll", "lookup");
+        String nickname = playerProfileRepository.findById(principal.getName()).orElseThrow()
+                .getNickname();
+        lookup.commit();
 
-        if (!miniGame.isEmpty()) {
-            MiniGameInstructionDTO instr = new MiniGameInstructionDTO(
-                    tileType.equals("multi") ? null : nickname, miniGame);
+        String miniGame = lobbyService.roll(lobbyId, nickname);
+        if (miniGame != null && !miniGame.isEmpty()) {
             // delay by 1 second the sending of the instruction
+            GameStageEvent sleep = GameStageEvent.begin(lobbyId, "roll", "sleep");
             try {
                 Thread.sleep(1000); // Simule un délai de 1 seconde
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt(); // Restore interrupted status
                 log.warning("Thread interrupted while sleeping: " + e.getMessage());
             }
-            messagingTemplate.convertAndSend(
-                    "/topic/game/" + lobbyId + "/minigame/instruction",
-                    instr);
+            sleep.commit();
+            lobbyService.announceMiniGame(lobbyId, miniGame, nickname);
         }
     }
 }
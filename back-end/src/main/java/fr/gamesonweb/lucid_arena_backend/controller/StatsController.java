@@ -0,0 +1,36 @@
+package fr.gamesonweb.lucid_arena_backend.controller;
+
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerStats;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerStatsRepository;
+import fr.gamesonweb.lucid_arena_backend.service.MatchHistoryWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    private static final int MAX_LEADERBOARD_SIZE = 1000;
+
+    private final MatchHistoryWriter matchHistoryWriter;
+    private final PlayerStatsRepository playerStatsRepository;
+
+    @GetMapping("/leaderboard")
+    public List<PlayerStats> leaderboard(@RequestParam(defaultValue = "10") int limit) {
+        return matchHistoryWriter.getLeaderboard(Math.clamp(limit, 1, MAX_LEADERBOARD_SIZE));
+    }
+
+    @GetMapping("/players/{nickname}")
+    public ResponseEntity<PlayerStats> playerStats(@PathVariable String nickname) {
+        return playerStatsRepository.findById(nickname)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(404).build());
+    }
+}
@@ -0,0 +1,58 @@
+package fr.gamesonweb.lucid_arena_backend.controller;
+
+import fr.gamesonweb.lucid_arena_backend.dto.TournamentStandingsDTO;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
+import fr.gamesonweb.lucid_arena_backend.service.TournamentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tournaments")
+@RequiredArgsConstructor
+public class TournamentController {
+    private static final int DEFAULT_LOBBY_SIZE = 4;
+
+    private final TournamentService tournamentService;
+    private final LobbyService lobbyService;
+
+    // players are listed best seed first
+    public record CreateTournamentDTO(List<String> players, Integer lobbySize) {
+    }
+
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody CreateTournamentDTO request) {
+        if (!lobbyService.isAcceptingLobbies()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Server is restarting, try again shortly");
+        }
+        int lobbySize = request.lobbySize() != null ? request.lobbySize() : DEFAULT_LOBBY_SIZE;
+        try {
+            String id = tournamentService.create(request.players() != null ? request.players() : List.of(), lobbySize);
+            return ResponseEntity.ok(Map.of("tournamentId", id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{tournamentId}")
+    public ResponseEntity<TournamentStandingsDTO> standings(@PathVariable String tournamentId) {
+        TournamentStandingsDTO standings = tournamentService.getStandings(tournamentId);
+        return standings != null ? ResponseEntity.ok(standings) : ResponseEntity.status(404).build();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        return ResponseEntity.ok(Map.of(
+                "lobbiesStarted", tournamentService.getLobbiesStarted(),
+                "lobbiesPerSecond", tournamentService.getLobbiesPerSecond()));
+    }
+}
@@ -2,7 +2,13 @@ package fr.gamesonweb.lucid_arena_backend.controller;
 
 import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
 import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerStatsRepository;
+import fr.gamesonweb.lucid_arena_backend.service.BotService;
+import fr.gamesonweb.lucid_arena_backend.service.NicknameIndex;
+import fr.gamesonweb.lucid_arena_backend.service.SessionNicknames;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -10,31 +16,83 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/user")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int MAX_NICKNAME_LENGTH = 32;
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final PlayerProfileRepository repo;
+    private final NicknameIndex nicknameIndex;
+    private final PlayerStatsRepository playerStatsRepository;
+    private final SessionNicknames sessionNicknames;
 
     @PostMapping("/nickname")
     public ResponseEntity<?> saveNickname(@RequestBody Map<String, String> body, @AuthenticationPrincipal Jwt jwt) {
-        String nickname = body.get("nickname");
+        String nickname = body.get("nickname") == null ? null : body.get("nickname").strip();
         String sub = jwt.getSubject();
         String email = jwt.getClaimAsString("email");
+        if (!isValidNickname(nickname)) {
+            return ResponseEntity.badRequest().body("Invalid nickname");
+        }
 
         PlayerProfile profile = repo.findById(sub).orElse(new PlayerProfile());
+        String previous = profile.getNickname();
+        if (nickname.equals(previous)) {
+            return ResponseEntity.ok().build();
+        }
+        if (nicknameIndex.contains(nickname)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Nickname already taken");
+        }
+        // stats and match history are keyed by nickname: freeing it would hand them to the next owner
+        if (previous != null && playerStatsRepository.existsById(previous)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Nickname has match history and cannot be changed");
+        }
         profile.setGoogleSub(sub);
         profile.setNickname(nickname);
         profile.setEmail(email);
 
-        repo.save(profile);
+        try {
+            // flush so that the unique index rejects a concurrent claim here
+            repo.saveAndFlush(profile);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Nickname already taken");
+        }
+        nicknameIndex.rename(previous, nickname);
+        // sockets opened before the profile existed learn it now, without reconnecting
+        sessionNicknames.rename(sub, nickname);
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/nickname/available")
+    public Map<String, Boolean> isNicknameAvailable(@RequestParam String nickname) {
+        String candidate = nickname.strip();
+        return Map.of("available", isValidNickname(candidate) && !nicknameIndex.contains(candidate));
+    }
+
+    // Friends to invite, by nickname prefix
+    @GetMapping("/search")
+    public List<String> search(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank()) {
+            return List.of();
+        }
+        return nicknameIndex.search(prefix.strip(), Math.clamp(limit, 1, MAX_SEARCH_RESULTS));
+    }
+
+    // bot names are reserved so that a bot never shares a nickname with a player of its lobby
+    private static boolean isValidNickname(String nickname) {
+        return nickname != null && !nickname.isEmpty() && nickname.length() <= MAX_NICKNAME_LENGTH
+                && nickname.chars().noneMatch(Character::isISOControl)
+                && !nickname.startsWith(BotService.BOT_PREFIX);
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> getProfile(@AuthenticationPrincipal Jwt jwt) {
         String sub = jwt.getSubject();
@@ -0,0 +1,11 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+public record LobbyCountsDTO(
+        int lobbies,
+        int waiting,
+        int playing,
+        int finished,
+        int pendingMiniGames,
+        long players,
+        int sessions) {
+}
@@ -0,0 +1,18 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+
+import java.util.List;
+import java.util.Map;
+
+public record LobbyDetailDTO(
+        String lobbyId,
+        String status,
+        List<String> players,
+        List<String> onlinePlayers,
+        GameState state,
+        long lastSeq,
+        String pendingMiniGame,
+        // miniGameName -> nickname -> score, for results still waiting on other players
+        Map<String, Map<String, Integer>> pendingResults) {
+}
@@ -0,0 +1,7 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+import java.util.List;
+
+// next is the "after" cursor of the following page, null on the last one
+public record LobbyPageDTO(List<LobbySummaryDTO> lobbies, String next) {
+}
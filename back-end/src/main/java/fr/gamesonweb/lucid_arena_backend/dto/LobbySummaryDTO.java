@@ -0,0 +1,12 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+// status is WAITING (not started), PLAYING or FINISHED
+public record LobbySummaryDTO(
+        String lobbyId,
+        String status,
+        int playerCount,
+        int onlineCount,
+        String currentPlayer,
+        String pendingMiniGame,
+        String winner) {
+}
@@ -0,0 +1,6 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+public record ReconnectNoticeDTO(
+        long minDelayMs,
+        long maxDelayMs) {
+}
@@ -0,0 +1,7 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+public record ReplayedMessageDTO(
+        long seq,
+        String destination,
+        Object payload) {
+}
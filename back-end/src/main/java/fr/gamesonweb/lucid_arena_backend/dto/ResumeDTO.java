@@ -0,0 +1,15 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+
+import java.util.List;
+
+/**
+ * Reply to a resume request: either the messages missed since the client's last sequence number,
+ * or a full snapshot when they are no longer buffered. {@code seq} is the last sequence number covered.
+ */
+public record ResumeDTO(
+        long seq,
+        GameState snapshot,
+        List<ReplayedMessageDTO> missed) {
+}
@@ -0,0 +1,4 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+public record ResumeRequestDTO(long lastSeq) {
+}
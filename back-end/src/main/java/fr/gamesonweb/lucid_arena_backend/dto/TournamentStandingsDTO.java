@@ -0,0 +1,17 @@
+package fr.gamesonweb.lucid_arena_backend.dto;
+
+import java.util.List;
+
+public record TournamentStandingsDTO(
+        String tournamentId,
+        String status,
+        String champion,
+        List<Round> rounds) {
+
+    public record Round(int number, List<Lobby> lobbies) {
+    }
+
+    // winner is null while the game is running, and for a forfeited lobby (removed before a winner, or no one showed up)
+    public record Lobby(String lobbyId, List<String> players, String winner, boolean forfeited) {
+    }
+}
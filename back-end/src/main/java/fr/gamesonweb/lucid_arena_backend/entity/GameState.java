@@ -13,4 +13,17 @@ public class GameState {
     private String lastDiceRoll;
     private List<String> boardTypes;
     private String winner;
+
+    // Detached copy, safe to serialize while the live state keeps changing
+    public GameState copy() {
+        GameState copy = new GameState();
+        copy.setPlayers(players == null ? null : List.copyOf(players));
+        copy.setCurrentPlayer(currentPlayer);
+        copy.setPositions(positions == null ? null : positions.clone());
+        copy.setScores(scores == null ? null : scores.clone());
+        copy.setLastDiceRoll(lastDiceRoll);
+        copy.setBoardTypes(boardTypes == null ? null : List.copyOf(boardTypes));
+        copy.setWinner(winner);
+        return copy;
+    }
 }
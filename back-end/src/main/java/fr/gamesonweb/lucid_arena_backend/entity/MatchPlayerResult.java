@@ -0,0 +1,19 @@
+package fr.gamesonweb.lucid_arena_backend.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchPlayerResult {
+    private String nickname;
+    private int finalScore;
+    private int miniGamesPlayed;
+    private int miniGamesWon;
+}
@@ -0,0 +1,47 @@
+package fr.gamesonweb.lucid_arena_backend.entity;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(indexes = @Index(name = "idx_match_record_ended_at", columnList = "endedAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class MatchRecord {
+    // sequence with a large allocation so the batched writer can use JDBC batch inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_record_seq")
+    @SequenceGenerator(name = "match_record_seq", allocationSize = 50)
+    private Long id;
+    private String lobbyId;
+    private String winnerNickname;
+    private Instant startedAt;
+    private Instant endedAt;
+    private long durationMs;
+
+    @ElementCollection
+    @CollectionTable(name = "match_player_result", joinColumns = @JoinColumn(name = "match_id"))
+    private List<MatchPlayerResult> players = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "match_mini_game_outcome", joinColumns = @JoinColumn(name = "match_id"))
+    @OrderColumn(name = "round")
+    private List<MiniGameOutcomeEntry> miniGames = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package fr.gamesonweb.lucid_arena_backend.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MiniGameOutcomeEntry {
+    private String miniGameName;
+    private String winnerNickname; // null when a solo player missed the target
+    private int winnerScore;
+}
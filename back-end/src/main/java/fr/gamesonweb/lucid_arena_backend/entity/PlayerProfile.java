@@ -3,11 +3,14 @@ package fr.gamesonweb.lucid_arena_backend.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = @Index(name = "idx_player_profile_nickname", columnList = "nickname", unique = true))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +18,7 @@ public class PlayerProfile {
     @Id
     private String googleSub; // sub de Google comme identifiant unique
     private String email;
-    private String nickname;
+    private String nickname; // unique, lobbies identify players by it
 
     public PlayerProfile(String nickname) {
         this.nickname = nickname;
@@ -0,0 +1,46 @@
+package fr.gamesonweb.lucid_arena_backend.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Running totals per player, updated by the history writer for every recorded match
+ * so that stats and leaderboard reads never touch the match history.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_player_stats_wins", columnList = "wins DESC, nickname"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class PlayerStats {
+    @Id
+    private String nickname;
+    private long gamesPlayed;
+    private long wins;
+    private long totalScore;
+    private long miniGamesPlayed;
+    private long miniGamesWon;
+
+    public PlayerStats(String nickname) {
+        this.nickname = nickname;
+    }
+
+    public void apply(MatchPlayerResult result, boolean won) {
+        gamesPlayed++;
+        if (won) {
+            wins++;
+        }
+        totalScore += result.getFinalScore();
+        miniGamesPlayed += result.getMiniGamesPlayed();
+        miniGamesWon += result.getMiniGamesWon();
+    }
+
+    public double getMiniGameWinRate() {
+        return miniGamesPlayed == 0 ? 0 : (double) miniGamesWon / miniGamesPlayed;
+    }
+}
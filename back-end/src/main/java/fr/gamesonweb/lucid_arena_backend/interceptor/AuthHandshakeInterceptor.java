@@ -1,5 +1,7 @@
 package fr.gamesonweb.lucid_arena_backend.interceptor;
 
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
@@ -18,6 +20,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuthHandshakeInterceptor implements HandshakeInterceptor {
     private final JwtDecoder jwtDecoder;
+    private final PlayerProfileRepository playerProfileRepository;
 
     @Override
     public boolean beforeHandshake(ServerHttpRequest request,
@@ -27,6 +30,11 @@ public class AuthHandshakeInterceptor implements HandshakeInterceptor {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth instanceof JwtAuthenticationToken jwtAuth) {
             attributes.put("user", jwtAuth.getName());
+            // resolved once per connection so inbound commands can be checked without a lookup,
+            // SessionNicknames sets it later if the profile does not exist yet
+            playerProfileRepository.findById(jwtAuth.getName())
+                    .map(PlayerProfile::getNickname)
+                    .ifPresent(nickname -> attributes.put("nickname", nickname));
             return true;
         }
         response.setStatusCode(HttpStatus.UNAUTHORIZED);
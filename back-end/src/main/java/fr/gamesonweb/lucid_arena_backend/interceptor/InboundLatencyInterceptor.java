@@ -0,0 +1,45 @@
+package fr.gamesonweb.lucid_arena_backend.interceptor;
+
+import fr.gamesonweb.lucid_arena_backend.monitoring.InboundQueueEvent;
+import jdk.jfr.EventType;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits an {@link InboundQueueEvent} for each inbound message: stamped when it is queued, reported when
+ * a handler thread takes it. Messages are only touched while a recording enables the event.
+ */
+@Component
+public class InboundLatencyInterceptor implements ExecutorChannelInterceptor {
+    private static final String RECEIVED_AT_HEADER = "lucidReceivedAt";
+    private static final EventType QUEUE_EVENT = EventType.getEventType(InboundQueueEvent.class);
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!QUEUE_EVENT.isEnabled()) {
+            return message;
+        }
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setHeader(RECEIVED_AT_HEADER, System.nanoTime());
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Object receivedAt = message.getHeaders().get(RECEIVED_AT_HEADER);
+        // the broker handlers see the same message, only report it once
+        if (receivedAt instanceof Long start && handler instanceof SimpAnnotationMethodMessageHandler) {
+            InboundQueueEvent event = new InboundQueueEvent(
+                    SimpMessageHeaderAccessor.getDestination(message.getHeaders()), System.nanoTime() - start);
+            event.commit();
+        }
+        return message;
+    }
+}
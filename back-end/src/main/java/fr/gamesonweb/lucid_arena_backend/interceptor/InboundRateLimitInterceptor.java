@@ -0,0 +1,196 @@
+package fr.gamesonweb.lucid_arena_backend.interceptor;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.service.GameEventListener;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Drops inbound game commands before they reach the executor: per-session and per-lobby token buckets,
+ * unknown lobbies, rolls sent by a player whose turn it is not, and any game command once the inbound
+ * queue is nearly full (protocol frames are never shed, see WebSocketConfig). Lobby chat has its own per-session
+ * bucket, so chatting never spends the game budget and a flood of chat never reaches the executor.
+ * Session buckets go on DISCONNECT, lobby buckets when the lobby is removed from the engine.
+ */
+@Component
+@Log
+public class InboundRateLimitInterceptor implements ChannelInterceptor, GameEventListener {
+    private static final String GAME_PREFIX = "/app/game/";
+    private static final String LOBBY_PREFIX = "/app/lobby/";
+    private static final String CHAT_SUFFIX = "/chat";
+    private static final String CHAT_HISTORY_SUFFIX = "/chat/history";
+
+    private final LobbyService lobbyService;
+    private final double sessionCapacity;
+    private final double sessionRefill;
+    private final double lobbyCapacity;
+    private final double lobbyRefill;
+    private final double chatCapacity;
+    private final double chatRefill;
+    private final Map<String, TokenBucket> sessionBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> lobbyBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> chatBuckets = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    // inbound executor queue, game commands are shed once it holds shedAt tasks
+    private volatile IntSupplier inboundQueueSize = () -> 0;
+    private volatile int shedAt = Integer.MAX_VALUE;
+
+    // @Lazy: LobbyService needs the broker template, which needs this interceptor's configurer
+    public InboundRateLimitInterceptor(@Lazy LobbyService lobbyService,
+                                       @Value("${lucid.ws.rate.session.burst:10}") double sessionCapacity,
+                                       @Value("${lucid.ws.rate.session.per-second:5}") double sessionRefill,
+                                       @Value("${lucid.ws.rate.lobby.burst:40}") double lobbyCapacity,
+                                       @Value("${lucid.ws.rate.lobby.per-second:20}") double lobbyRefill,
+                                       @Value("${lucid.chat.rate.burst:5}") double chatCapacity,
+                                       @Value("${lucid.chat.rate.per-second:1}") double chatRefill) {
+        this.lobbyService = lobbyService;
+        this.sessionCapacity = sessionCapacity;
+        this.sessionRefill = sessionRefill;
+        this.lobbyCapacity = lobbyCapacity;
+        this.lobbyRefill = lobbyRefill;
+        this.chatCapacity = chatCapacity;
+        this.chatRefill = chatRefill;
+    }
+
+    // once the context is up: resolving the @Lazy LobbyService any earlier would bring back the cycle
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        lobbyService.addListener(this);
+    }
+
+    public void watchInboundQueue(IntSupplier queueSize, int shedAt) {
+        this.inboundQueueSize = queueSize;
+        this.shedAt = shedAt;
+    }
+
+    @Override
+    public void onStateChanged(String lobbyId, GameState state) {
+    }
+
+    @Override
+    public void onMiniGameAnnounced(String lobbyId, String miniGameName, String soloPlayer) {
+    }
+
+    @Override
+    public void onLobbyRemoved(String lobbyId) {
+        lobbyBuckets.remove(lobbyId);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (type == SimpMessageType.DISCONNECT) {
+            sessionBuckets.remove(sessionId);
+            chatBuckets.remove(sessionId);
+            return message;
+        }
+        if (type != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null && destination.startsWith(LOBBY_PREFIX) && destination.endsWith(CHAT_SUFFIX)) {
+            return preSendChat(message, sessionId, destination, CHAT_SUFFIX);
+        }
+        if (destination != null && destination.startsWith(LOBBY_PREFIX) && destination.endsWith(CHAT_HISTORY_SUFFIX)) {
+            return preSendChat(message, sessionId, destination, CHAT_HISTORY_SUFFIX);
+        }
+        if (destination == null || !destination.startsWith(GAME_PREFIX)) {
+            return message;
+        }
+        int slash = destination.indexOf('/', GAME_PREFIX.length());
+        String lobbyId = slash < 0 ? destination.substring(GAME_PREFIX.length())
+                : destination.substring(GAME_PREFIX.length(), slash);
+        String command = slash < 0 ? "" : destination.substring(slash + 1);
+
+        if (inboundQueueSize.getAsInt() >= shedAt) {
+            shed.increment();
+            log.warning("Inbound queue full, dropped " + command + " in lobby " + lobbyId
+                    + " (" + shed.sum() + " so far)");
+            return null;
+        }
+        if (!lobbyService.isAcceptingLobbies()) {
+            return reject(sessionId, lobbyId, command, "draining for shutdown");
+        }
+        if (!lobbyService.hasRoom(lobbyId)) {
+            return reject(sessionId, lobbyId, command, "unknown lobby");
+        }
+        if (command.equals("roll") && isOutOfTurn(message, lobbyId)) {
+            return reject(sessionId, lobbyId, command, "not your turn");
+        }
+        if (sessionId != null && !sessionBuckets
+                .computeIfAbsent(sessionId, id -> new TokenBucket(sessionCapacity, sessionRefill)).tryAcquire()) {
+            throttled.increment();
+            return null;
+        }
+        if (!lobbyBuckets
+                .computeIfAbsent(lobbyId, id -> new TokenBucket(lobbyCapacity, lobbyRefill)).tryAcquire()) {
+            throttled.increment();
+            return null;
+        }
+        return message;
+    }
+
+    // history requests spend the same bucket as messages
+    private Message<?> preSendChat(Message<?> message, String sessionId, String destination, String suffix) {
+        String lobbyId = destination.substring(LOBBY_PREFIX.length(), destination.length() - suffix.length());
+        if (!lobbyService.hasRoom(lobbyId)) {
+            return reject(sessionId, lobbyId, "chat", "unknown lobby");
+        }
+        if (sessionId != null && !chatBuckets
+                .computeIfAbsent(sessionId, id -> new TokenBucket(chatCapacity, chatRefill)).tryAcquire()) {
+            throttled.increment();
+            return null;
+        }
+        return message;
+    }
+
+    private boolean isOutOfTurn(Message<?> message, String lobbyId) {
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        String nickname = attributes == null ? null : (String) attributes.get("nickname");
+        GameState state = lobbyService.peekGameState(lobbyId);
+        if (nickname == null || state == null) {
+            return false; // let the controller decide
+        }
+        return !nickname.equals(state.getPlayers().get(state.getCurrentPlayer()).getNickname());
+    }
+
+    private Message<?> reject(String sessionId, String lobbyId, String command, String reason) {
+        rejected.increment();
+        log.fine("Rejected " + command + " from session " + sessionId + " in lobby " + lobbyId + ": " + reason);
+        return null;
+    }
+
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    int getLobbyBucketCount() {
+        return lobbyBuckets.size();
+    }
+}
@@ -0,0 +1,42 @@
+package fr.gamesonweb.lucid_arena_backend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One timed stage of a game command (lookup, rules, sleep, computeOutcome, encode, send...).
+ * Costs next to nothing when no recording enables it: {@link #commit()} is then a no-op.
+ * <pre>
+ * GameStageEvent event = GameStageEvent.begin(lobbyId, "roll", "lookup");
+ * ...
+ * event.commit();
+ * </pre>
+ */
+@Name("fr.gamesonweb.lucid.GameStage")
+@Label("Game Command Stage")
+@Category({"Lucid Arena", "Game"})
+@Description("Time spent in one stage of a game command or broadcast")
+@StackTrace(false)
+public class GameStageEvent extends Event {
+    @Label("Lobby")
+    String lobbyId;
+
+    @Label("Command")
+    String command;
+
+    @Label("Stage")
+    String stage;
+
+    public static GameStageEvent begin(String lobbyId, String command, String stage) {
+        GameStageEvent event = new GameStageEvent();
+        event.lobbyId = lobbyId;
+        event.command = command;
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,31 @@
+package fr.gamesonweb.lucid_arena_backend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Time a STOMP command waited in the client inbound queue before a handler thread picked it up.
+ */
+@Name("fr.gamesonweb.lucid.InboundQueue")
+@Label("Inbound Queue Wait")
+@Category({"Lucid Arena", "Game"})
+@Description("Wait between receiving a STOMP command and starting to handle it")
+@StackTrace(false)
+public class InboundQueueEvent extends Event {
+    @Label("Destination")
+    String destination;
+
+    @Label("Queue Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueTime;
+
+    public InboundQueueEvent(String destination, long queueTime) {
+        this.destination = destination;
+        this.queueTime = queueTime;
+    }
+}
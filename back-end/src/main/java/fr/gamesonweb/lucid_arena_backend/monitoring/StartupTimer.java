@@ -0,0 +1,27 @@
+package fr.gamesonweb.lucid_arena_backend.monitoring;
+
+import lombok.extern.java.Log;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs how long after JVM start the first STOMP session was accepted, the startup figure players feel
+ * after a restart. bench/startup-benchmark.sh measures the same thing from outside the process.
+ */
+@Component
+@Log
+public class StartupTimer {
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        if (reported.compareAndSet(false, true)) {
+            long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            log.info("First WebSocket session accepted " + elapsed + " ms after JVM start");
+        }
+    }
+}
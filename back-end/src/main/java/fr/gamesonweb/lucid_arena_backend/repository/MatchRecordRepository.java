@@ -0,0 +1,9 @@
+package fr.gamesonweb.lucid_arena_backend.repository;
+
+import fr.gamesonweb.lucid_arena_backend.entity.MatchRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchRecordRepository extends JpaRepository<MatchRecord, Long> {
+}
@@ -2,8 +2,15 @@ package fr.gamesonweb.lucid_arena_backend.repository;
 
 import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface PlayerProfileRepository extends JpaRepository<PlayerProfile, String> {
+
+    // Must be consumed inside a transaction
+    @Query("select p.nickname from PlayerProfile p where p.nickname is not null")
+    Stream<String> streamAllNicknames();
 }
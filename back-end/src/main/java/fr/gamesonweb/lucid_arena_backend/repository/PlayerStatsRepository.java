@@ -0,0 +1,14 @@
+package fr.gamesonweb.lucid_arena_backend.repository;
+
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerStats;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlayerStatsRepository extends JpaRepository<PlayerStats, String> {
+    // served by idx_player_stats_wins, no count query
+    List<PlayerStats> findAllByOrderByWinsDescNicknameAsc(Limit limit);
+}
@@ -5,16 +5,21 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
 
 @Component
 public class BoardGenerator {
     private final Random random = new Random();
-    // mêmes poids que votre front : 25% multi, 25% solo, 20% bonus, 30% malus
-    private final List<String> types = List.of("multi","solo","bonus","malus");
+    // cumulative weights: 30% multi, 30% solo, 25% bonus, 15% malus
+    public static final List<String> TILE_TYPES = List.of("multi","solo","bonus","malus");
     private final List<Double> cumulative = List.of(0.30, 0.60, 0.85, 1.0);
 
     public List<String> generate(int tileCount) {
+        return generate(tileCount, random);
+    }
+
+    public List<String> generate(int tileCount, RandomGenerator random) {
         List<String> result = new ArrayList<>(tileCount);
         for (int i = 0; i < tileCount; i++) {
             double r = random.nextDouble();
@@ -22,7 +27,7 @@ public class BoardGenerator {
                     .filter(j -> r < cumulative.get(j))
                     .findFirst()
                     .orElse(cumulative.size() - 1);
-            result.add(types.get(idx));
+            result.add(TILE_TYPES.get(idx));
         }
         return result;
     }
@@ -0,0 +1,226 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Server-side players. A bot is a nickname in a lobby: it holds no thread while waiting, each of its
+ * actions (a roll, a mini-game score) runs as a short virtual thread that sleeps for the think time
+ * and calls {@link LobbyService} directly. Lobbies with bots are unranked, and are left out of the
+ * shutdown snapshot since no bot would drive them after a restart. Soak lobbies are removed from the
+ * engine as soon as their game ends, or all at once by {@link #stopSoak}.
+ */
+@Service
+@Log
+public class BotService implements GameEventListener {
+    public static final String BOT_PREFIX = "Bot-";
+    // Same pause as LobbyController between a roll and its mini-game instruction
+    private static final long INSTRUCTION_DELAY_MS = 1000;
+
+    private final LobbyService lobbyService;
+    private final PresenceService presence;
+    private final long thinkMs;
+    private final long playMs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Set<String>> botsByLobby = new ConcurrentHashMap<>();
+    // Lobbies with a bot roll scheduled, so repeated broadcasts of one turn roll once
+    private final Set<String> rolling = ConcurrentHashMap.newKeySet();
+    private final Set<String> soakLobbies = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextBotId = new AtomicLong();
+    private final AtomicLong actions = new AtomicLong();
+
+    public BotService(LobbyService lobbyService,
+                      PresenceService presence,
+                      @Value("${lucid.bots.think-ms:1500}") long thinkMs,
+                      @Value("${lucid.bots.play-ms:8000}") long playMs) {
+        this.lobbyService = lobbyService;
+        this.presence = presence;
+        this.thinkMs = thinkMs;
+        this.playMs = playMs;
+    }
+
+    @PostConstruct
+    void register() {
+        lobbyService.addListener(this);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public List<String> addBots(String lobbyId, int count) {
+        List<String> added = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String nickname = BOT_PREFIX + nextBotId.incrementAndGet();
+            if (!lobbyService.addPlayerToRoom(lobbyId, nickname)) {
+                break; // unknown lobby
+            }
+            lobbyService.markUnranked(lobbyId);
+            presence.attach(lobbyId, nickname);
+            botsByLobby.computeIfAbsent(lobbyId, id -> ConcurrentHashMap.newKeySet()).add(nickname);
+            added.add(nickname);
+        }
+        return added;
+    }
+
+    // Bot-only lobbies, started right away
+    public int startSoak(int lobbies, int botsPerLobby) {
+        int started = 0;
+        for (int i = 0; i < lobbies; i++) {
+            String lobbyId = "soak-" + nextBotId.incrementAndGet();
+            if (!lobbyService.createRoom(lobbyId)) {
+                if (!lobbyService.isAcceptingLobbies()) {
+                    break; // draining
+                }
+                continue; // id taken by a player
+            }
+            soakLobbies.add(lobbyId);
+            addBots(lobbyId, botsPerLobby);
+            lobbyService.startGame(lobbyId);
+            started++;
+        }
+        return started;
+    }
+
+    // Removes every soak lobby still running
+    public int stopSoak() {
+        int stopped = 0;
+        for (String lobbyId : List.copyOf(soakLobbies)) {
+            lobbyService.removeLobby(lobbyId);
+            stopped++;
+        }
+        return stopped;
+    }
+
+    public int getSoakLobbyCount() {
+        return soakLobbies.size();
+    }
+
+    public int getBotCount() {
+        int count = 0;
+        for (Set<String> bots : botsByLobby.values()) {
+            count += bots.size();
+        }
+        return count;
+    }
+
+    public int getBotLobbyCount() {
+        return botsByLobby.size();
+    }
+
+    public long getActionCount() {
+        return actions.get();
+    }
+
+    @Override
+    public void onStateChanged(String lobbyId, GameState state) {
+        Set<String> bots = botsByLobby.get(lobbyId);
+        if (bots == null) {
+            return;
+        }
+        if (state.getWinner() != null) {
+            botsByLobby.remove(lobbyId);
+            if (soakLobbies.contains(lobbyId)) {
+                // nobody is watching a soak game, drop it once over (outside of the lobby lock)
+                executor.execute(() -> lobbyService.removeLobby(lobbyId));
+            }
+            return;
+        }
+        String current = state.getPlayers().get(state.getCurrentPlayer()).getNickname();
+        if (!bots.contains(current) || lobbyService.hasPendingMiniGame(lobbyId) || !rolling.add(lobbyId)) {
+            return;
+        }
+        executor.execute(() -> {
+            if (!pause(thinkMs)) {
+                rolling.remove(lobbyId);
+                return;
+            }
+            // cleared before rolling: the roll broadcasts the next turn, which may be another bot's
+            rolling.remove(lobbyId);
+            actions.incrementAndGet();
+            String miniGame = lobbyService.roll(lobbyId, current);
+            if (miniGame != null && !miniGame.isEmpty() && pause(INSTRUCTION_DELAY_MS)) {
+                lobbyService.announceMiniGame(lobbyId, miniGame, current);
+            }
+        });
+    }
+
+    @Override
+    public void onMiniGameAnnounced(String lobbyId, String miniGameName, String soloPlayer) {
+        Set<String> bots = botsByLobby.get(lobbyId);
+        if (bots == null) {
+            return;
+        }
+        if (soloPlayer != null) {
+            if (bots.contains(soloPlayer)) {
+                play(lobbyId, soloPlayer, miniGameName);
+            }
+            return;
+        }
+        for (String bot : bots) {
+            play(lobbyId, bot, miniGameName);
+        }
+    }
+
+    @Override
+    public void onLobbyRemoved(String lobbyId) {
+        botsByLobby.remove(lobbyId);
+        rolling.remove(lobbyId);
+        soakLobbies.remove(lobbyId);
+    }
+
+    private void play(String lobbyId, String bot, String miniGameName) {
+        executor.execute(() -> {
+            // spread the submissions the way real players finish at different times
+            long duration = playMs / 2 + ThreadLocalRandom.current().nextLong(playMs + 1);
+            if (pause(duration)) {
+                actions.incrementAndGet();
+                int score = plausibleScore(miniGameName, ThreadLocalRandom.current());
+                lobbyService.submitMiniGameResult(lobbyId, bot, miniGameName, score);
+            }
+        });
+    }
+
+    // Scores in the range the front-end games produce, around the solo targets for the solo games
+    static int plausibleScore(String miniGameName, RandomGenerator random) {
+        double score = switch (miniGameName) {
+            case "ClickerGame" -> random.nextGaussian(GameRules.CLICKER_TARGET + 5, 20);
+            case "rainingGame" -> random.nextGaussian(GameRules.RAINING_TARGET + 2, 5);
+            // distance run before hitting a cloud
+            case "mini1" -> random.nextGaussian(120, 60);
+            // three throws worth 0, 1, 3 or 5 points
+            case "StarGame" -> {
+                int[] points = {0, 1, 3, 5};
+                yield points[random.nextInt(4)] + points[random.nextInt(4)] + points[random.nextInt(4)];
+            }
+            default -> random.nextInt(100);
+        };
+        return Math.max(0, (int) score);
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ChatMessageDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chat of one lobby: a ring of the last messages and the ones not yet sent. Both are capped in
+ * entries and messages are capped in length, so a lobby never holds more than
+ * (historyCapacity + pendingCapacity) messages of at most maxLength characters. Not thread safe,
+ * callers lock on it.
+ */
+class ChatRoom {
+    private final String lobbyId;
+    private final ChatMessageDTO[] history;
+    private final int pendingCapacity;
+    private final List<ChatMessageDTO> pending = new ArrayList<>();
+    private long count;
+    boolean scheduled;
+
+    ChatRoom(String lobbyId, int historyCapacity, int pendingCapacity) {
+        this.lobbyId = lobbyId;
+        this.history = new ChatMessageDTO[historyCapacity];
+        this.pendingCapacity = pendingCapacity;
+    }
+
+    String getLobbyId() {
+        return lobbyId;
+    }
+
+    // false when the unsent backlog is full: the message is dropped rather than buffered
+    boolean add(ChatMessageDTO message) {
+        if (pending.size() >= pendingCapacity) {
+            return false;
+        }
+        history[(int) (count++ % history.length)] = message;
+        pending.add(message);
+        return true;
+    }
+
+    List<ChatMessageDTO> drainPending() {
+        List<ChatMessageDTO> batch = List.copyOf(pending);
+        pending.clear();
+        return batch;
+    }
+
+    // Messages already sent, oldest first; pending ones reach the joiner through its subscription
+    List<ChatMessageDTO> history() {
+        long from = count - Math.min(count, history.length);
+        long to = count - pending.size();
+        List<ChatMessageDTO> result = new ArrayList<>((int) Math.max(0, to - from));
+        for (long i = from; i < to; i++) {
+            result.add(history[(int) (i % history.length)]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ChatMessageDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lobby chat. Posting only stores the message and marks the lobby dirty, so the inbound thread is
+ * released at once; a dedicated ticker sends each dirty lobby's new messages as one frame (a JSON
+ * array) to /topic/lobby/{id}/chat, apart from the game broadcaster. Senders are rate limited before
+ * this, in {@code InboundRateLimitInterceptor}.
+ */
+@Service
+@Log
+public class ChatService {
+    public static final int MAX_MESSAGE_LENGTH = 280;
+    static final int HISTORY_CAPACITY = 50;
+
+    private final SimpMessagingTemplate messaging;
+    private final long tickMs;
+    private final Map<String, ChatRoom> rooms = new ConcurrentHashMap<>();
+    private final Queue<ChatRoom> dirty = new ConcurrentLinkedQueue<>();
+    private final LongAdder dropped = new LongAdder();
+    private ScheduledExecutorService ticker;
+
+    public ChatService(SimpMessagingTemplate messaging, @Value("${lucid.chat.tick-ms:100}") long tickMs) {
+        this.messaging = messaging;
+        this.tickMs = tickMs;
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-ticker").daemon().factory());
+        ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    // false when the message was empty or the lobby backlog is full
+    public boolean post(String lobbyId, String sender, String text) {
+        if (text == null || text.isBlank()) {
+            return false;
+        }
+        String trimmed = text.strip();
+        if (trimmed.length() > MAX_MESSAGE_LENGTH) {
+            trimmed = trimmed.substring(0, MAX_MESSAGE_LENGTH);
+        }
+        ChatMessageDTO message = new ChatMessageDTO(sender, trimmed, System.currentTimeMillis());
+        ChatRoom room = rooms.computeIfAbsent(lobbyId, id -> new ChatRoom(id, HISTORY_CAPACITY, HISTORY_CAPACITY));
+        synchronized (room) {
+            if (!room.add(message)) {
+                dropped.increment();
+                return false;
+            }
+            if (!room.scheduled) {
+                room.scheduled = true;
+                dirty.add(room);
+            }
+        }
+        return true;
+    }
+
+    // Recent messages for a player who just joined
+    public List<ChatMessageDTO> history(String lobbyId) {
+        ChatRoom room = rooms.get(lobbyId);
+        if (room == null) {
+            return List.of();
+        }
+        synchronized (room) {
+            return room.history();
+        }
+    }
+
+    public void remove(String lobbyId) {
+        rooms.remove(lobbyId);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    void tick() {
+        ChatRoom room;
+        while ((room = dirty.poll()) != null) {
+            List<ChatMessageDTO> batch;
+            synchronized (room) {
+                room.scheduled = false;
+                batch = room.drainPending();
+            }
+            try {
+                messaging.convertAndSend("/topic/lobby/" + room.getLobbyId() + "/chat", batch);
+            } catch (RuntimeException e) {
+                log.warning("Failed to send chat of lobby " + room.getLobbyId() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts victories to the Discord webhook from its own thread: the game calls it under the lobby lock
+ * and must not wait on Discord. Disabled when no webhook is configured.
+ */
+@Component
+@Log
+public class DiscordNotifier {
+    private final RestTemplate restTemplate;
+    private final String webhookUrl;
+    private ExecutorService executor;
+
+    public DiscordNotifier(@Lazy RestTemplate restTemplate,
+                           @Value("${lucid.discord.webhook-url:}") String webhookUrl) {
+        this.restTemplate = restTemplate;
+        this.webhookUrl = webhookUrl;
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("discord-notifier").daemon().factory());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public void notifyWin(String winner, int score) {
+        if (webhookUrl.isBlank()) {
+            return;
+        }
+        // formatted now, so the date is the one of the victory
+        String content = String.format(
+                "🏆 **VICTOIRE !**\nJoueur : %s\nScore final : %d\nDate : %s",
+                winner, score, new Date()
+        );
+        try {
+            executor.execute(() -> post(content));
+        } catch (RejectedExecutionException e) {
+            log.warning("Notif Discord ignorée, arrêt en cours : " + winner);
+        }
+    }
+
+    private void post(String content) {
+        try {
+            restTemplate.postForEntity(webhookUrl, Map.of("content", content), String.class);
+        } catch (Exception e) {
+            log.warning("Erreur lors de l'envoi de la notif Discord : " + e.getMessage());
+        }
+    }
+}
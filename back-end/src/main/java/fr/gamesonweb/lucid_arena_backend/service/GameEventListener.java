@@ -0,0 +1,19 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+
+/**
+ * Called synchronously by {@link LobbyService}, under the lobby lock: implementations must hand work
+ * off to their own threads instead of calling back into the engine.
+ */
+public interface GameEventListener {
+
+    // A new state was broadcast to the lobby, or the game just started
+    void onStateChanged(String lobbyId, GameState state);
+
+    // soloPlayer is null for mini-games played by the whole lobby
+    void onMiniGameAnnounced(String lobbyId, String miniGameName, String soloPlayer);
+
+    // The lobby was dropped from the engine, commands for it are ignored from now on
+    void onLobbyRemoved(String lobbyId);
+}
@@ -0,0 +1,106 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Board game rules, free of Spring and messaging so that the live lobbies and the
+ * {@link fr.gamesonweb.lucid_arena_backend.simulation.GameSimulator} play exactly the same game.
+ */
+public final class GameRules {
+    public static final int WINNING_SCORE = 5;
+    public static final int CLICKER_TARGET = 80;
+    public static final int RAINING_TARGET = 10;
+    public static final List<String> MULTI_GAMES = List.of("mini1", "StarGame");
+    public static final List<String> SOLO_GAMES = List.of("ClickerGame", "rainingGame");
+
+    private GameRules() {
+    }
+
+    /**
+     * Rolls the dice for the current player, moves them and applies bonus/malus tiles.
+     *
+     * @return the mini-game to play on the landing tile, or an empty string
+     */
+    public static String roll(GameState state, RandomGenerator random) {
+        // Calcule le lancer (1 à 6)
+        int dice = random.nextInt(6) + 1;
+        state.setLastDiceRoll(String.valueOf(dice));
+
+        int currentPlayerIndex = state.getCurrentPlayer();
+        // Met à jour la position du joueur, qui revient au début s'il dépasse la fin du plateau
+        int position = (state.getPositions()[currentPlayerIndex] + dice) % state.getBoardTypes().size();
+        state.getPositions()[currentPlayerIndex] = position;
+
+        String tileType = state.getBoardTypes().get(position);
+        switch (tileType) {
+            case "multi" -> {
+                return MULTI_GAMES.get(random.nextInt(2));
+            }
+            case "solo" -> {
+                return SOLO_GAMES.get(random.nextInt(2));
+            }
+            case "bonus" -> state.getScores()[currentPlayerIndex] += 1;
+            case "malus" -> state.getScores()[currentPlayerIndex] -= 1;
+            default -> throw new IllegalStateException("Unknown tile type: " + tileType);
+        }
+        return "";
+    }
+
+    public static boolean isSolo(String miniGameName) {
+        return SOLO_GAMES.contains(miniGameName);
+    }
+
+    // Score a solo player needs to win the mini-game
+    public static int soloTarget(String miniGameName) {
+        return switch (miniGameName) {
+            case "ClickerGame" -> CLICKER_TARGET;
+            case "rainingGame" -> RAINING_TARGET;
+            default -> throw new IllegalArgumentException("Not a solo mini game: " + miniGameName);
+        };
+    }
+
+    public static boolean isSoloWin(String miniGameName, int score) {
+        return score >= soloTarget(miniGameName);
+    }
+
+    /**
+     * Winner of a multi-player mini-game: the highest score, the first one met in iteration order on a tie.
+     *
+     * @return the winner's entry, or null if nobody played
+     */
+    public static Map.Entry<String, Integer> multiWinner(Map<String, Integer> scores) {
+        Map.Entry<String, Integer> best = null;
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            if (best == null || entry.getValue() > best.getValue()) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    // A mini-game win is worth one point
+    public static void awardMiniGame(GameState state, int playerIndex) {
+        state.getScores()[playerIndex] += 1;
+    }
+
+    public static void advanceTurn(GameState state) {
+        state.setCurrentPlayer(state.getCurrentPlayer() + 1);
+        if (state.getCurrentPlayer() == state.getPlayers().size()) {
+            state.setCurrentPlayer(0); // Recommence au premier joueur
+        }
+    }
+
+    // Index of the first player at the winning score, -1 while the game goes on
+    public static int winnerIndex(GameState state) {
+        for (int i = 0; i < state.getScores().length; i++) {
+            if (state.getScores()[i] >= WINNING_SCORE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,258 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ReplayedMessageDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.ResumeDTO;
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.monitoring.GameStageEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.EventType;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single way out for lobby broadcasts. Every message gets a per-lobby sequence number (sent as the
+ * {@value #SEQ_HEADER} STOMP header) and is kept in a small replay buffer so that a reconnecting client
+ * can fetch exactly what it missed.
+ * <p>
+ * With a positive tick, messages are not sent right away: each lobby collects them in an outbox, a game
+ * state replacing the pending state for the same topic (moved behind anything queued after that one, so
+ * frames keep the order they were published in), and every tick the dirty lobbies are flushed
+ * by a few sender threads. A burst of updates within a tick then costs one frame per topic.
+ */
+@Component
+@Log
+public class LobbyBroadcaster {
+    public static final String SEQ_HEADER = "seq";
+    public static final int REPLAY_CAPACITY = 64;
+    private static final EventType STAGE_EVENT = EventType.getEventType(GameStageEvent.class);
+
+    private final SimpMessagingTemplate messaging;
+    private final long tickMs;
+    private final int senderThreads;
+    private final Map<String, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final Queue<Outbox> dirty = new ConcurrentLinkedQueue<>();
+    private final LongAdder sentFrames = new LongAdder();
+    private final LongAdder coalescedFrames = new LongAdder();
+    private ScheduledExecutorService ticker;
+    private ExecutorService senders;
+
+    public LobbyBroadcaster(SimpMessagingTemplate messaging,
+                            @Value("${lucid.broadcast.tick-ms:30}") long tickMs,
+                            @Value("${lucid.broadcast.sender-threads:2}") int senderThreads) {
+        this.messaging = messaging;
+        this.tickMs = tickMs;
+        this.senderThreads = senderThreads;
+    }
+
+    @PostConstruct
+    void start() {
+        if (tickMs <= 0) {
+            return; // send inline
+        }
+        senders = Executors.newFixedThreadPool(senderThreads,
+                Thread.ofPlatform().name("lobby-sender-", 0).daemon().factory());
+        ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("lobby-tick").daemon().factory());
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (ticker == null) {
+            return;
+        }
+        ticker.shutdown();
+        senders.shutdown();
+        senders.awaitTermination(1, TimeUnit.SECONDS);
+        Outbox outbox;
+        while ((outbox = dirty.poll()) != null) {
+            flush(outbox);
+        }
+    }
+
+    public void publish(String lobbyId, String destination, Object payload) {
+        Outbox outbox = outbox(lobbyId);
+        synchronized (outbox) {
+            if (tickMs <= 0) {
+                send(outbox, destination, payload);
+                return;
+            }
+            if (outbox.enqueue(destination, payload)) {
+                coalescedFrames.increment();
+            }
+            if (!outbox.scheduled) {
+                outbox.scheduled = true;
+                dirty.add(outbox);
+            }
+        }
+    }
+
+    public GameState latestState(String lobbyId) {
+        Outbox outbox = outboxes.get(lobbyId);
+        if (outbox == null) {
+            return null;
+        }
+        synchronized (outbox) {
+            return outbox.replay.latestState();
+        }
+    }
+
+    public long lastSeq(String lobbyId) {
+        Outbox outbox = outboxes.get(lobbyId);
+        if (outbox == null) {
+            return 0;
+        }
+        synchronized (outbox) {
+            return outbox.replay.lastSeq();
+        }
+    }
+
+    public ResumeDTO resume(String lobbyId, long lastSeq, Supplier<GameState> snapshot) {
+        Outbox outbox = outbox(lobbyId);
+        synchronized (outbox) {
+            // anything still pending reaches the client through its subscriptions
+            List<ReplayedMessageDTO> missed = outbox.replay.since(lastSeq);
+            if (missed != null) {
+                return new ResumeDTO(outbox.replay.lastSeq(), null, missed);
+            }
+            GameState state = outbox.replay.latestState();
+            return new ResumeDTO(outbox.replay.lastSeq(), state != null ? state : snapshot.get(), List.of());
+        }
+    }
+
+    // Sequence numbers of a restored lobby carry on from its last one, so clients can still resume
+    public void restoreSeq(String lobbyId, long lastSeq) {
+        Outbox outbox = outbox(lobbyId);
+        synchronized (outbox) {
+            outbox.replay.startAfter(lastSeq);
+        }
+    }
+
+    public void remove(String lobbyId) {
+        outboxes.remove(lobbyId);
+    }
+
+    public long getSentFrameCount() {
+        return sentFrames.sum();
+    }
+
+    public long getCoalescedFrameCount() {
+        return coalescedFrames.sum();
+    }
+
+    private Outbox outbox(String lobbyId) {
+        return outboxes.computeIfAbsent(lobbyId, Outbox::new);
+    }
+
+    private void tick() {
+        List<Outbox> batch = new ArrayList<>();
+        Outbox outbox;
+        while ((outbox = dirty.poll()) != null) {
+            batch.add(outbox);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int chunk = (batch.size() + senderThreads - 1) / senderThreads;
+        for (int from = 0; from < batch.size(); from += chunk) {
+            List<Outbox> slice = batch.subList(from, Math.min(from + chunk, batch.size()));
+            senders.execute(() -> slice.forEach(this::flush));
+        }
+    }
+
+    private void flush(Outbox outbox) {
+        try {
+            synchronized (outbox) {
+                outbox.scheduled = false;
+                for (Pending pending : outbox.pending) {
+                    send(outbox, pending.destination, pending.payload);
+                }
+                outbox.pending.clear();
+            }
+        } catch (RuntimeException e) {
+            log.warning("Failed to flush lobby broadcast: " + e.getMessage());
+        }
+    }
+
+    // caller holds the outbox lock, so sequence numbers reach the broker in order
+    private void send(Outbox outbox, String destination, Object payload) {
+        long seq = outbox.replay.append(destination, payload);
+        Map<String, Object> headers = Map.of(SEQ_HEADER, seq);
+        if (!STAGE_EVENT.isEnabled()) {
+            messaging.convertAndSend(destination, payload, headers);
+        } else {
+            GameStageEvent encode = GameStageEvent.begin(outbox.lobbyId, "broadcast", "encode");
+            GameStageEvent[] send = new GameStageEvent[1];
+            // the post processor runs between Jackson encoding and the hand-off to the broker
+            messaging.convertAndSend(destination, payload, headers, message -> {
+                encode.commit();
+                send[0] = GameStageEvent.begin(outbox.lobbyId, "broadcast", "send");
+                return message;
+            });
+            // null when the template skipped the post processor (conversion failed, or a test double)
+            if (send[0] != null) {
+                send[0].commit();
+            }
+        }
+        sentFrames.increment();
+    }
+
+    private static final class Pending {
+        private final String destination;
+        private Object payload;
+
+        private Pending(String destination, Object payload) {
+            this.destination = destination;
+            this.payload = payload;
+        }
+    }
+
+    private static final class Outbox {
+        private final String lobbyId;
+        private final ReplayBuffer replay = new ReplayBuffer(REPLAY_CAPACITY);
+        private final List<Pending> pending = new ArrayList<>(4);
+        private boolean scheduled;
+
+        private Outbox(String lobbyId) {
+            this.lobbyId = lobbyId;
+        }
+
+        // true when the payload made a pending state on the same topic obsolete
+        private boolean enqueue(String destination, Object payload) {
+            if (payload instanceof GameState) {
+                for (int i = pending.size() - 1; i >= 0; i--) {
+                    Pending p = pending.get(i);
+                    if (!p.destination.equals(destination)) {
+                        continue;
+                    }
+                    if (i == pending.size() - 1) {
+                        p.payload = payload;
+                        return true;
+                    }
+                    // other messages were queued after it: the new state goes after them, keeping the order
+                    pending.remove(i);
+                    pending.add(new Pending(destination, payload));
+                    return true;
+                }
+            }
+            pending.add(new Pending(destination, payload));
+            return false;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyCountsDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyDetailDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyPageDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.LobbySummaryDTO;
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.entity.MiniGameResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Read-only view of the live lobbies for operators. States come from the last snapshot broadcast to the
+ * lobby, which is immutable, so nothing here takes the game lock except the copy of one lobby's pending
+ * results, and nothing is sent to players. Listing is one pass over the lobbies with a bounded heap for
+ * the page, paged by lobby id (keyset) so pages stay stable while lobbies come and go.
+ */
+@Service
+@RequiredArgsConstructor
+public class LobbyInspector {
+    public static final String WAITING = "WAITING";
+    public static final String PLAYING = "PLAYING";
+    public static final String FINISHED = "FINISHED";
+
+    private final LobbyService lobbyService;
+    private final LobbyBroadcaster broadcaster;
+    private final PresenceService presence;
+
+    /**
+     * @param status   WAITING, PLAYING or FINISHED, null for all
+     * @param player   only lobbies this nickname is in, null for all
+     * @param after    lobby id cursor, pages start strictly after it
+     */
+    public LobbyPageDTO list(String status, String player, int minPlayers, String after, int size) {
+        // largest id on top, so the heap keeps the smallest ids after the cursor
+        PriorityQueue<String> page = new PriorityQueue<>(size + 1, Comparator.reverseOrder());
+        for (String lobbyId : lobbyService.getRoomIds()) {
+            if (after != null && lobbyId.compareTo(after) <= 0) {
+                continue;
+            }
+            if (page.size() == size && lobbyId.compareTo(page.peek()) >= 0) {
+                continue;
+            }
+            Set<String> players = lobbyService.getPlayers(lobbyId);
+            if (players.size() < minPlayers || (player != null && !players.contains(player))) {
+                continue;
+            }
+            if (status != null && !status.equals(statusOf(lobbyService.peekGameState(lobbyId)))) {
+                continue;
+            }
+            page.add(lobbyId);
+            if (page.size() > size) {
+                page.poll();
+            }
+        }
+        List<String> ids = new ArrayList<>(page);
+        ids.sort(null);
+        List<LobbySummaryDTO> lobbies = new ArrayList<>(ids.size());
+        for (String lobbyId : ids) {
+            lobbies.add(summary(lobbyId));
+        }
+        String next = ids.size() == size ? ids.getLast() : null;
+        return new LobbyPageDTO(lobbies, next);
+    }
+
+    public LobbyDetailDTO detail(String lobbyId) {
+        if (!lobbyService.hasRoom(lobbyId)) {
+            return null;
+        }
+        GameState state = snapshot(lobbyId);
+        Map<String, Map<String, Integer>> pendingResults = new HashMap<>();
+        GameState live = lobbyService.peekGameState(lobbyId);
+        if (live != null) {
+            // results are only written under the lobby lock; a handful of entries to copy
+            synchronized (live) {
+                HashMap<String, MiniGameResult> results = lobbyService.peekMiniGameResults(lobbyId);
+                if (results != null) {
+                    results.forEach((name, result) -> pendingResults.put(name, Map.copyOf(result.getPlayerScores())));
+                }
+            }
+        }
+        return new LobbyDetailDTO(
+                lobbyId,
+                statusOf(state),
+                List.copyOf(lobbyService.getPlayers(lobbyId)),
+                List.copyOf(presence.onlinePlayers(lobbyId)),
+                state,
+                broadcaster.lastSeq(lobbyId),
+                lobbyService.peekPendingMiniGame(lobbyId),
+                pendingResults);
+    }
+
+    public LobbyCountsDTO counts() {
+        int lobbies = 0;
+        int waiting = 0;
+        int playing = 0;
+        int finished = 0;
+        int pendingMiniGames = 0;
+        long players = 0;
+        for (String lobbyId : lobbyService.getRoomIds()) {
+            lobbies++;
+            players += lobbyService.getPlayers(lobbyId).size();
+            switch (statusOf(lobbyService.peekGameState(lobbyId))) {
+                case WAITING -> waiting++;
+                case PLAYING -> playing++;
+                default -> finished++;
+            }
+            if (lobbyService.peekPendingMiniGame(lobbyId) != null) {
+                pendingMiniGames++;
+            }
+        }
+        return new LobbyCountsDTO(lobbies, waiting, playing, finished, pendingMiniGames, players,
+                presence.sessionCount());
+    }
+
+    private LobbySummaryDTO summary(String lobbyId) {
+        GameState state = snapshot(lobbyId);
+        String currentPlayer = state == null || state.getWinner() != null ? null
+                : state.getPlayers().get(state.getCurrentPlayer()).getNickname();
+        return new LobbySummaryDTO(
+                lobbyId,
+                statusOf(state),
+                lobbyService.getPlayers(lobbyId).size(),
+                presence.onlineCount(lobbyId),
+                currentPlayer,
+                lobbyService.peekPendingMiniGame(lobbyId),
+                state == null ? null : state.getWinner());
+    }
+
+    // Last broadcast state, or a copy of the live one for a game that has not broadcast yet
+    private GameState snapshot(String lobbyId) {
+        GameState state = broadcaster.latestState(lobbyId);
+        if (state != null) {
+            return state;
+        }
+        GameState live = lobbyService.peekGameState(lobbyId);
+        return live == null ? null : live.copy();
+    }
+
+    private static String statusOf(GameState state) {
+        if (state == null) {
+            return WAITING;
+        }
+        return state.getWinner() == null ? PLAYING : FINISHED;
+    }
+}
@@ -0,0 +1,68 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ends the life of finished lobbies. Once a game has a winner the lobby is kept for a retention period,
+ * so that players still see the final board and can chat, then removed from {@link LobbyService}, which
+ * also drops its broadcast buffers. The chat of every removed lobby is dropped here.
+ */
+@Service
+@Log
+public class LobbyReaper implements GameEventListener {
+    private final LobbyService lobbyService;
+    private final ChatService chatService;
+    private final long retentionMs;
+    // finished lobbies with a removal scheduled, so repeated final broadcasts schedule it once
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService timer;
+
+    public LobbyReaper(LobbyService lobbyService,
+                       ChatService chatService,
+                       @Value("${lucid.lobby.finished-retention-ms:300000}") long retentionMs) {
+        this.lobbyService = lobbyService;
+        this.chatService = chatService;
+        this.retentionMs = retentionMs;
+    }
+
+    @PostConstruct
+    void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("lobby-reaper").daemon().factory());
+        lobbyService.addListener(this);
+    }
+
+    @PreDestroy
+    void stop() {
+        timer.shutdownNow();
+    }
+
+    @Override
+    public void onStateChanged(String lobbyId, GameState state) {
+        if (state.getWinner() != null && scheduled.add(lobbyId)) {
+            // called under the lobby lock: the removal runs on the timer thread
+            timer.schedule(() -> lobbyService.removeLobby(lobbyId), retentionMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onMiniGameAnnounced(String lobbyId, String miniGameName, String soloPlayer) {
+    }
+
+    @Override
+    public void onLobbyRemoved(String lobbyId) {
+        scheduled.remove(lobbyId);
+        chatService.remove(lobbyId);
+        log.fine("Removed lobby " + lobbyId);
+    }
+}
@@ -1,45 +1,120 @@
 package fr.gamesonweb.lucid_arena_backend.service;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import fr.gamesonweb.lucid_arena_backend.controller.GameController;
+import fr.gamesonweb.lucid_arena_backend.dto.MiniGameInstructionDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.ResumeDTO;
 import fr.gamesonweb.lucid_arena_backend.entity.GameState;
 import fr.gamesonweb.lucid_arena_backend.entity.MiniGameResult;
 import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
-import lombok.AllArgsConstructor;
+import fr.gamesonweb.lucid_arena_backend.monitoring.GameStageEvent;
 import lombok.extern.java.Log;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.stereotype.Service;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@AllArgsConstructor
 @Log
 public class LobbyService {
     public static final int TILE_COUNT = 44;
     private final BoardGenerator boardGenerator;
-    private final SimpMessagingTemplate messaging;
+    private final LobbyBroadcaster broadcaster;
     private final Map<String, Set<String>> rooms = new ConcurrentHashMap<>();
     private final Map<String, GameState> gameStates = new ConcurrentHashMap<>();
     // Hashmap of lobbyId to HashMap of miniGameName to MiniGameResult
     private final Map<String, HashMap<String, MiniGameResult>> miniGameResults = new ConcurrentHashMap<>();
-    private final RestTemplate restTemplate;
+    // Mini-game announced to a lobby and not resolved yet
+    private final Map<String, String> pendingMiniGames = new ConcurrentHashMap<>();
+    // Running matches, removed once recorded
+    private final Map<String, MatchTracker> matchTrackers = new ConcurrentHashMap<>();
+    // Lobbies with bots: played normally but neither announced nor recorded
+    private final Set<String> unrankedLobbies = ConcurrentHashMap.newKeySet();
+    private final DiscordNotifier discordNotifier;
+    private final MatchHistoryWriter matchHistoryWriter;
+    private final PresenceService presence;
+    private final List<GameEventListener> listeners = new CopyOnWriteArrayList<>();
+    // false while draining for shutdown
+    private volatile boolean acceptingLobbies = true;
+
+    public LobbyService(BoardGenerator boardGenerator,
+                        LobbyBroadcaster broadcaster,
+                        DiscordNotifier discordNotifier,
+                        MatchHistoryWriter matchHistoryWriter,
+                        PresenceService presence) {
+        this.boardGenerator = boardGenerator;
+        this.broadcaster = broadcaster;
+        this.discordNotifier = discordNotifier;
+        this.matchHistoryWriter = matchHistoryWriter;
+        this.presence = presence;
+        // presence is per lobby too and must not outlive it
+        listeners.add(presence);
+    }
+
+    // false when the id is already taken or the server is draining (see isAcceptingLobbies)
+    public boolean createRoom(String roomId) {
+        if (!acceptingLobbies) {
+            return false;
+        }
+        return rooms.putIfAbsent(roomId, ConcurrentHashMap.newKeySet()) == null;
+    }
 
-    public void createRoom(String roomId) {
-        rooms.putIfAbsent(roomId, ConcurrentHashMap.newKeySet());
+    public boolean isAcceptingLobbies() {
+        return acceptingLobbies;
+    }
+
+    public void stopAcceptingLobbies() {
+        acceptingLobbies = false;
+    }
+
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void markUnranked(String lobbyId) {
+        unrankedLobbies.add(lobbyId);
+    }
+
+    public boolean isUnranked(String lobbyId) {
+        return unrankedLobbies.contains(lobbyId);
+    }
+
+    // Forgets a lobby and its broadcast buffers; commands still in flight for it are then ignored
+    public void removeLobby(String lobbyId) {
+        GameState state = gameStates.get(lobbyId);
+        if (state == null) {
+            dropLobby(lobbyId);
+            return;
+        }
+        synchronized (state) {
+            dropLobby(lobbyId);
+        }
+    }
+
+    private void dropLobby(String lobbyId) {
+        if (rooms.remove(lobbyId) == null) {
+            return; // already removed
+        }
+        gameStates.remove(lobbyId);
+        miniGameResults.remove(lobbyId);
+        pendingMiniGames.remove(lobbyId);
+        matchTrackers.remove(lobbyId);
+        unrankedLobbies.remove(lobbyId);
+        broadcaster.remove(lobbyId);
+        for (GameEventListener listener : listeners) {
+            listener.onLobbyRemoved(lobbyId);
+        }
+    }
+
+    public Set<String> getRoomIds() {
+        return rooms.keySet();
     }
 
     public boolean addPlayerToRoom(String roomId, String nickname) {
@@ -52,6 +127,15 @@ public class LobbyService {
         return rooms.getOrDefault(roomId, Set.of());
     }
 
+    public boolean hasRoom(String roomId) {
+        return rooms.containsKey(roomId);
+    }
+
+    // Unlike getGameState, never creates the state
+    public GameState peekGameState(String lobbyId) {
+        return gameStates.get(lobbyId);
+    }
+
     public GameState getGameState(String lobbyId) {
         return gameStates.computeIfAbsent(lobbyId, id -> createInitialGameState(lobbyId));
     }
@@ -60,9 +144,136 @@ public class LobbyService {
         gameStates.put(roomId, gameState);
     }
 
+    public void broadcastState(String lobbyId, GameState state) {
+        GameState snapshot = state.copy();
+        broadcaster.publish(lobbyId, "/topic/game/" + lobbyId, snapshot);
+        for (GameEventListener listener : listeners) {
+            listener.onStateChanged(lobbyId, snapshot);
+        }
+    }
+
+    // null for an unknown lobby
+    public GameState startGame(String lobbyId) {
+        GameState state = getGameState(lobbyId);
+        if (state == null) {
+            return null;
+        }
+        GameState snapshot = state.copy();
+        for (GameEventListener listener : listeners) {
+            listener.onStateChanged(lobbyId, snapshot);
+        }
+        return state;
+    }
+
+    /**
+     * Plays the turn of {@code nickname}: rolls, moves, applies the tile and broadcasts the new state.
+     * @return the mini-game to announce, an empty string if none, or null if it was not their turn
+     */
+    public String roll(String lobbyId, String nickname) {
+        GameStageEvent rules = GameStageEvent.begin(lobbyId, "roll", "rules");
+        // 1. Récupère l’état
+        GameState state = gameStates.get(lobbyId);
+        if (state == null) {
+            return null; // not started, or removed
+        }
+        // the state is the lobby lock: players, bots and disconnects mutate it from different threads
+        synchronized (state) {
+            // 2. Valide que c’est le bon joueur
+            if (gameStates.get(lobbyId) != state || state.getWinner() != null
+                    || !nickname.equals(state.getPlayers().get(state.getCurrentPlayer()).getNickname())) {
+                log.warning("Ignoring roll from " + nickname + " in lobby " + lobbyId + ": not their turn");
+                return null;
+            }
+            // 3. Lance le dé, déplace le joueur et applique la case
+            String miniGame = GameRules.roll(state, ThreadLocalRandom.current());
+
+            // 4. Met à jour le joueur actuel
+            if (miniGame.isEmpty()) {
+                incrementCurrentPlayerOrReset(lobbyId, state);
+            } else {
+                startMiniGame(lobbyId, miniGame);
+            }
+
+            PlayerProfile profile = checkIfEndGame(lobbyId);
+            state.setWinner(profile != null ? profile.getNickname() : null);
+            setGameState(lobbyId, state);
+            rules.commit();
+
+            // 5. Broadcast à tous dans la room
+            GameStageEvent publish = GameStageEvent.begin(lobbyId, "roll", "publish");
+            broadcastState(lobbyId, state);
+            publish.commit();
+            return miniGame;
+        }
+    }
+
+    public void announceMiniGame(String lobbyId, String miniGame, String rollerNickname) {
+        String soloPlayer = GameRules.isSolo(miniGame) ? rollerNickname : null;
+        broadcaster.publish(lobbyId, "/topic/game/" + lobbyId + "/minigame/instruction",
+                new MiniGameInstructionDTO(soloPlayer, miniGame));
+        for (GameEventListener listener : listeners) {
+            listener.onMiniGameAnnounced(lobbyId, miniGame, soloPlayer);
+        }
+    }
+
+    public void submitMiniGameResult(String lobbyId, String nickname, String miniGameName, int score) {
+        GameState state = gameStates.get(lobbyId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (gameStates.get(lobbyId) != state) {
+                return; // removed while waiting for the lock
+            }
+            // stocker le résultat temporairement
+            addMiniGameResult(lobbyId, nickname, miniGameName, score);
+            resolveMiniGameIfComplete(lobbyId, miniGameName);
+        }
+    }
+
+    // si tous les joueurs ont renvoyé leur résultat, on calcule le gagnant
+    private void resolveMiniGameIfComplete(String lobbyId, String miniGameName) {
+        if (!allResultReceived(lobbyId, miniGameName)) {
+            return;
+        }
+        GameStageEvent compute = GameStageEvent.begin(lobbyId, "minigame/result", "computeOutcome");
+        GameController.MiniGameOutcomeDTO outcome = computeOutcome(lobbyId, miniGameName);
+        compute.commit();
+        if (outcome != null) { // null when a solo player missed the target
+            log.info("Mini game result: " + outcome.miniGameName());
+            broadcaster.publish(lobbyId, "/topic/game/" + lobbyId + "/minigame/outcome", outcome);
+        }
+    }
+
+    public boolean hasPendingMiniGame(String lobbyId) {
+        return pendingMiniGames.containsKey(lobbyId);
+    }
+
+    // Last state broadcast, served to reconnecting clients without touching the live state
+    public GameState getStateSnapshot(String lobbyId) {
+        GameState snapshot = broadcaster.latestState(lobbyId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        GameState state = getGameState(lobbyId);
+        return state == null ? null : state.copy();
+    }
+
+    public ResumeDTO resume(String lobbyId, long lastSeq) {
+        if (!hasRoom(lobbyId)) {
+            return new ResumeDTO(0, null, List.of()); // removed lobby
+        }
+        return broadcaster.resume(lobbyId, lastSeq, () -> getStateSnapshot(lobbyId));
+    }
+
+    // null for an unknown (or removed) room
     private GameState createInitialGameState(String roomId) {
+        Set<String> room = rooms.get(roomId);
+        if (room == null) {
+            return null;
+        }
         GameState state = new GameState();
-        List<String> players = List.copyOf(rooms.get(roomId));
+        List<String> players = List.copyOf(room);
         if (players.isEmpty()) {
             throw new IllegalStateException("No players in the room to initialize game state.");
         }
@@ -75,10 +286,48 @@ public class LobbyService {
         state.setScores(new int[playerProfiles.size()]); // Initialisation des scores à 0
         state.setLastDiceRoll(""); // Dernier lancer de dés vide au début
         state.setBoardTypes(boardGenerator.generate(TILE_COUNT));
+        matchTrackers.put(roomId, new MatchTracker());
 
         return state;
     }
 
+    HashMap<String, MiniGameResult> peekMiniGameResults(String lobbyId) {
+        return miniGameResults.get(lobbyId);
+    }
+
+    String peekPendingMiniGame(String lobbyId) {
+        return pendingMiniGames.get(lobbyId);
+    }
+
+    MatchTracker peekMatchTracker(String lobbyId) {
+        return matchTrackers.get(lobbyId);
+    }
+
+    long peekLastSeq(String lobbyId) {
+        return broadcaster.lastSeq(lobbyId);
+    }
+
+    // Puts back a lobby read from a shutdown snapshot
+    void restoreLobby(String roomId, Set<String> players, GameState state, HashMap<String, MiniGameResult> results,
+                      String pendingMiniGame, MatchTracker tracker, long lastSeq) {
+        Set<String> roomPlayers = ConcurrentHashMap.newKeySet();
+        roomPlayers.addAll(players);
+        rooms.put(roomId, roomPlayers);
+        if (state != null) {
+            gameStates.put(roomId, state);
+        }
+        if (results != null) {
+            miniGameResults.put(roomId, results);
+        }
+        if (pendingMiniGame != null) {
+            pendingMiniGames.put(roomId, pendingMiniGame);
+        }
+        if (tracker != null) {
+            matchTrackers.put(roomId, tracker);
+        }
+        broadcaster.restoreSeq(roomId, lastSeq);
+    }
+
     public void addMiniGameResult(String lobbyId, String playerNickname, String miniGameName, int score) {
         // check if the lobby and mini game result exist, if not create them
         HashMap<String, MiniGameResult> results = miniGameResults.get(lobbyId);
@@ -108,18 +357,24 @@ public class LobbyService {
             return false; // No results for this mini game
         }
         // if minigame is a solo game, we only need one result
-        if (miniGameName.equals("ClickerGame") || miniGameName.equals("rainingGame")) {
+        if (GameRules.isSolo(miniGameName)) {
             log.info("Solo mini game " + miniGameName + " in lobby " + lobbyId);
             return miniGameResult.getPlayerScores().size() == 1;
         }
-        // For multi-player games, we need all players to have submitted their results
+        // For multi-player games, we need all connected players to have submitted their results
         Set<String> players = rooms.get(lobbyId);
         if (players == null) {
             log.info("No players found in lobby " + lobbyId);
             return false; // No players in the lobby
         }
 
-        return miniGameResult.getPlayerScores().keySet().containsAll(players);
+        Set<String> submitted = miniGameResult.getPlayerScores().keySet();
+        for (String player : players) {
+            if (!submitted.contains(player) && !presence.isOffline(lobbyId, player)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void resetMinigameResult(String lobbyId, String miniGameName) {
@@ -132,8 +387,13 @@ public class LobbyService {
         }
     }
 
+    public void startMiniGame(String lobbyId, String miniGameName) {
+        pendingMiniGames.put(lobbyId, miniGameName);
+    }
+
     public GameController.MiniGameOutcomeDTO computeOutcome(String lobbyId,
                                                             String miniGameName) {
+        pendingMiniGames.remove(lobbyId, miniGameName);
         HashMap<String, MiniGameResult> results = miniGameResults.get(lobbyId);
         if (results == null) {
             log.info("No results found for lobby " + lobbyId);
@@ -145,33 +405,25 @@ public class LobbyService {
             return null; // No results for this mini game
         }
         // if miniGame is a soloGame ("ClickerGame" or "rainingGame"), we only need one player
-        if (miniGameName.equals("ClickerGame")) {
-            return updateScoreMiniGameSolo(lobbyId, miniGameName, miniGameResult, 80);
-        }
-        if (miniGameName.equals("rainingGame")) {
-            return updateScoreMiniGameSolo(lobbyId, miniGameName, miniGameResult, 10);
+        if (GameRules.isSolo(miniGameName)) {
+            return updateScoreMiniGameSolo(lobbyId, miniGameName, miniGameResult);
         }
 
         // Find the player with the highest score
-        String winnerNickname = null;
-        int highestScore = Integer.MIN_VALUE;
-
-        for (Map.Entry<String, Integer> entry : miniGameResult.getPlayerScores().entrySet()) {
-            if (entry.getValue() > highestScore) {
-                highestScore = entry.getValue();
-                winnerNickname = entry.getKey();
-            }
-        }
+        Map.Entry<String, Integer> best = GameRules.multiWinner(miniGameResult.getPlayerScores());
+        String winnerNickname = best == null ? null : best.getKey();
+        int highestScore = best == null ? Integer.MIN_VALUE : best.getValue();
 
 
         GameState state = getGameState(lobbyId);
+        recordMiniGame(lobbyId, miniGameName, miniGameResult.getPlayerScores().keySet(), winnerNickname, highestScore);
         String finalWinnerNickname = winnerNickname;
         state.getPlayers().stream()
                 .filter(player -> player.getNickname().equals(finalWinnerNickname))
                 .findFirst()
                 .ifPresent(player -> {
                     int playerIndex = state.getPlayers().indexOf(player);
-                    state.getScores()[playerIndex] += 1; // Increment the score of the winning player
+                    GameRules.awardMiniGame(state, playerIndex); // Increment the score of the winning player
                 });
 
         incrementCurrentPlayerOrReset(lobbyId, state);
@@ -180,7 +432,7 @@ public class LobbyService {
 
         state.setWinner(endWinner != null ? endWinner.getNickname() : null);
         this.setGameState(lobbyId, state);
-        messaging.convertAndSend("/topic/game/" + lobbyId, state);
+        broadcastState(lobbyId, state);
 
 
         return new GameController.MiniGameOutcomeDTO(miniGameName, winnerNickname, highestScore);
@@ -191,8 +443,7 @@ public class LobbyService {
     public GameController.MiniGameOutcomeDTO updateScoreMiniGameSolo(
             String lobbyId,
             String miniGameName,
-            MiniGameResult miniGameResult,
-            int neededScore) {
+            MiniGameResult miniGameResult) {
         Map.Entry<String, Integer> entry = miniGameResult.getPlayerScores().entrySet().iterator().next();
         String playerNickname = entry.getKey();
         GameState gameState = getGameState(lobbyId);
@@ -201,14 +452,16 @@ public class LobbyService {
                 .toList()
                 .indexOf(playerNickname);
         if (playerIndex != -1) {
-            if (entry.getValue() < neededScore) {
-                log.warning("Player " + playerNickname + " did not reach the needed score of " + neededScore);
+            boolean won = GameRules.isSoloWin(miniGameName, entry.getValue());
+            recordMiniGame(lobbyId, miniGameName, List.of(playerNickname), won ? playerNickname : null, entry.getValue());
+            if (!won) {
+                log.warning("Player " + playerNickname + " did not reach the needed score of " + GameRules.soloTarget(miniGameName));
+                resetMinigameResult(lobbyId, miniGameName);
                 incrementCurrentPlayerOrReset(lobbyId, gameState);
-                messaging.convertAndSend("/topic/game/" + lobbyId, gameState);
+                broadcastState(lobbyId, gameState);
                 return null; // Player did not reach the needed score
             }
-            int currentScore = gameState.getScores()[playerIndex];
-            gameState.getScores()[playerIndex] = currentScore + 1;
+            GameRules.awardMiniGame(gameState, playerIndex);
             log.info("Solo mini game " + miniGameName + " in lobby " + lobbyId + " won by " + playerNickname);
             PlayerProfile endWinner = checkIfEndGame(lobbyId);
             gameState.setWinner(endWinner != null ? endWinner.getNickname() : null);
@@ -218,7 +471,7 @@ public class LobbyService {
 
         resetMinigameResult(lobbyId, miniGameName);
         incrementCurrentPlayerOrReset(lobbyId, gameState);
-        messaging.convertAndSend("/topic/game/" + lobbyId, gameState);
+        broadcastState(lobbyId, gameState);
 
         return new GameController.MiniGameOutcomeDTO(miniGameName, entry.getKey(), entry.getValue());
     }
@@ -226,13 +479,18 @@ public class LobbyService {
     public PlayerProfile checkIfEndGame(String lobbyId) {
         GameState state = getGameState(lobbyId);
         if (state != null) {
-            for (int i = 0; i < state.getScores().length; i++) {
-                if (state.getScores()[i] >= 5) { // Assuming 5 is the winning score
-                    String winnerNickname = state.getPlayers().get(i).getNickname();
-                    int finalScore = state.getScores()[i];
-                    sendDiscordWinNotification(winnerNickname, finalScore);
-                    return state.getPlayers().get(i);
+            int i = GameRules.winnerIndex(state);
+            if (i != -1) {
+                String winnerNickname = state.getPlayers().get(i).getNickname();
+                int finalScore = state.getScores()[i];
+                if (unrankedLobbies.contains(lobbyId)) {
+                    matchTrackers.remove(lobbyId);
+                } else {
+                    // queued: the post runs after the lobby lock is released
+                    discordNotifier.notifyWin(winnerNickname, finalScore);
+                    recordMatch(lobbyId, state, winnerNickname);
                 }
+                return state.getPlayers().get(i);
             }
         }
 
@@ -241,26 +499,58 @@ public class LobbyService {
     }
 
 
-    private void sendDiscordWinNotification(String winner, int score) {
-        String webhookUrl = "https://discord.com/api/webhooks/1377897437846306836/dLkYXfF2Y6XI-gnrXwsIgkoo_Kycuuns7ophDW1taHBCES2Hx1dJZDUirY4IVXsa_j-p";
-        String content = String.format(
-                "🏆 **VICTOIRE !**\nJoueur : %s\nScore final : %d\nDate : %s",
-                winner, score, new java.util.Date()
-        );
+    private boolean isOffline(String lobbyId, GameState state, int playerIndex) {
+        return presence.isOffline(lobbyId, state.getPlayers().get(playerIndex).getNickname());
+    }
 
-        Map<String, String> json = Map.of("content", content);
+    // A player left (after the presence grace period): finish what was waiting on them, and pass their turn
+    @EventListener
+    public void onPlayerOffline(PlayerOfflineEvent event) {
+        String lobbyId = event.lobbyId();
+        GameState state = gameStates.get(lobbyId);
+        if (state == null || state.getWinner() != null) {
+            return;
+        }
+        synchronized (state) {
+            if (!presence.isOffline(lobbyId, event.nickname())) {
+                return; // reconnected since
+            }
+            String current = state.getPlayers().get(state.getCurrentPlayer()).getNickname();
+            String miniGame = pendingMiniGames.get(lobbyId);
+            if (miniGame != null) {
+                if (GameRules.isSolo(miniGame) && current.equals(event.nickname())) {
+                    // the absent player fails their solo game
+                    addMiniGameResult(lobbyId, event.nickname(), miniGame, 0);
+                }
+                resolveMiniGameIfComplete(lobbyId, miniGame);
+            } else if (current.equals(event.nickname())) {
+                incrementCurrentPlayerOrReset(lobbyId, state);
+                broadcastState(lobbyId, state);
+            }
+        }
+    }
+
+    private void recordMiniGame(String lobbyId, String miniGameName, Collection<String> participants,
+                                String winnerNickname, int winnerScore) {
+        MatchTracker tracker = matchTrackers.get(lobbyId);
+        if (tracker != null) {
+            tracker.recordMiniGame(miniGameName, participants, winnerNickname, winnerScore);
+        }
+    }
 
-        try {
-            restTemplate.postForEntity(webhookUrl, json, String.class);
-        } catch (Exception e) {
-            log.warning("Erreur lors de l'envoi de la notif Discord : " + e.getMessage());
+    private void recordMatch(String lobbyId, GameState state, String winnerNickname) {
+        MatchTracker tracker = matchTrackers.remove(lobbyId);
+        if (tracker == null) {
+            return; // already recorded
         }
+        matchHistoryWriter.submit(tracker.toRecord(lobbyId, state, winnerNickname));
     }
 
     public void incrementCurrentPlayerOrReset(String lobbyId, GameState state) {
-        state.setCurrentPlayer(state.getCurrentPlayer() + 1);
-        if (state.getCurrentPlayer() == state.getPlayers().size()) {
-            state.setCurrentPlayer(0); // Recommence au premier joueur
+        GameRules.advanceTurn(state);
+        // skip disconnected players, unless nobody is left
+        for (int i = 1; i < state.getPlayers().size() && isOffline(lobbyId, state, state.getCurrentPlayer()); i++) {
+            GameRules.advanceTurn(state);
         }
         this.setGameState(lobbyId, state);
     }
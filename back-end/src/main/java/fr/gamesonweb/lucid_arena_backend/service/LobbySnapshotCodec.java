@@ -0,0 +1,185 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.entity.MiniGameResult;
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary format for live lobbies: plain {@link DataOutput} primitives, tiles as one byte each.
+ * Each started lobby is written under its lock, the one game commands take, so its state, pending results
+ * and broadcast sequence number are consistent with each other.
+ * Bump {@link #VERSION} on any change, files of another version are ignored.
+ */
+final class LobbySnapshotCodec {
+    private static final int MAGIC = 0x4C554349; // "LUCI"
+    private static final int VERSION = 3;
+
+    private LobbySnapshotCodec() {
+    }
+
+    // Lobbies with bots are skipped: nothing would play the bots' turns after a restart
+    static int write(LobbyService lobbyService, DataOutput out) throws IOException {
+        List<String> roomIds = lobbyService.getRoomIds().stream()
+                .filter(roomId -> !lobbyService.isUnranked(roomId))
+                .toList();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(roomIds.size());
+        for (String roomId : roomIds) {
+            GameState state = lobbyService.peekGameState(roomId);
+            if (state == null) {
+                writeLobby(lobbyService, roomId, null, out); // not started, nothing to lock
+            } else {
+                synchronized (state) {
+                    writeLobby(lobbyService, roomId, state, out);
+                }
+            }
+        }
+        return roomIds.size();
+    }
+
+    private static void writeLobby(LobbyService lobbyService, String roomId, GameState state, DataOutput out)
+            throws IOException {
+        out.writeUTF(roomId);
+        writeStrings(out, List.copyOf(lobbyService.getPlayers(roomId)));
+        out.writeLong(lobbyService.peekLastSeq(roomId));
+
+        out.writeBoolean(state != null);
+        if (state != null) {
+            writeState(out, state);
+        }
+
+        Map<String, MiniGameResult> results = lobbyService.peekMiniGameResults(roomId);
+        if (results == null) {
+            results = Map.of();
+        }
+        out.writeInt(results.size());
+        for (Map.Entry<String, MiniGameResult> entry : results.entrySet()) {
+            out.writeUTF(entry.getKey());
+            Map<String, Integer> scores = entry.getValue().getPlayerScores();
+            out.writeInt(scores.size());
+            for (Map.Entry<String, Integer> score : scores.entrySet()) {
+                out.writeUTF(score.getKey());
+                out.writeInt(score.getValue());
+            }
+        }
+
+        writeNullableString(out, lobbyService.peekPendingMiniGame(roomId));
+
+        MatchTracker tracker = lobbyService.peekMatchTracker(roomId);
+        out.writeBoolean(tracker != null);
+        if (tracker != null) {
+            tracker.writeTo(out);
+        }
+    }
+
+    static int read(LobbyService lobbyService, DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a lobby snapshot of version " + VERSION);
+        }
+        int lobbyCount = in.readInt();
+        for (int i = 0; i < lobbyCount; i++) {
+            String roomId = in.readUTF();
+            Set<String> players = new HashSet<>(readStrings(in));
+            long lastSeq = in.readLong();
+            GameState state = in.readBoolean() ? readState(in) : null;
+
+            int resultCount = in.readInt();
+            HashMap<String, MiniGameResult> results = resultCount == 0 ? null : new HashMap<>();
+            for (int r = 0; r < resultCount; r++) {
+                String miniGameName = in.readUTF();
+                MiniGameResult result = new MiniGameResult();
+                int scoreCount = in.readInt();
+                for (int s = 0; s < scoreCount; s++) {
+                    result.addPlayerScore(in.readUTF(), in.readInt());
+                }
+                results.put(miniGameName, result);
+            }
+
+            String pendingMiniGame = readNullableString(in);
+            MatchTracker tracker = in.readBoolean() ? MatchTracker.readFrom(in) : null;
+            lobbyService.restoreLobby(roomId, players, state, results, pendingMiniGame, tracker, lastSeq);
+        }
+        return lobbyCount;
+    }
+
+    private static void writeState(DataOutput out, GameState state) throws IOException {
+        writeStrings(out, state.getPlayers().stream().map(PlayerProfile::getNickname).toList());
+        out.writeInt(state.getCurrentPlayer());
+        for (int position : state.getPositions()) {
+            out.writeInt(position);
+        }
+        for (int score : state.getScores()) {
+            out.writeInt(score);
+        }
+        writeNullableString(out, state.getLastDiceRoll());
+        out.writeInt(state.getBoardTypes().size());
+        for (String type : state.getBoardTypes()) {
+            out.writeByte(BoardGenerator.TILE_TYPES.indexOf(type));
+        }
+        writeNullableString(out, state.getWinner());
+    }
+
+    private static GameState readState(DataInput in) throws IOException {
+        GameState state = new GameState();
+        List<String> nicknames = readStrings(in);
+        state.setPlayers(nicknames.stream().map(PlayerProfile::new).toList());
+        state.setCurrentPlayer(in.readInt());
+        int[] positions = new int[nicknames.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = in.readInt();
+        }
+        state.setPositions(positions);
+        int[] scores = new int[nicknames.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = in.readInt();
+        }
+        state.setScores(scores);
+        state.setLastDiceRoll(readNullableString(in));
+        int tileCount = in.readInt();
+        List<String> boardTypes = new ArrayList<>(tileCount);
+        for (int i = 0; i < tileCount; i++) {
+            boardTypes.add(BoardGenerator.TILE_TYPES.get(in.readByte()));
+        }
+        state.setBoardTypes(boardTypes);
+        state.setWinner(readNullableString(in));
+        return state;
+    }
+
+    private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,95 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ReconnectNoticeDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps live lobbies across a redeploy. On shutdown new lobbies are refused, every lobby is dumped to
+ * a local snapshot file and clients are told to reconnect after a random delay, so they do not all
+ * come back at once. On startup the snapshot is loaded back and deleted.
+ */
+@Component
+@Log
+public class LobbySnapshotStore {
+    private final LobbyService lobbyService;
+    private final SimpMessagingTemplate messaging;
+    private final Path snapshotPath;
+    private final long reconnectMinDelayMs;
+    private final long reconnectMaxDelayMs;
+
+    public LobbySnapshotStore(LobbyService lobbyService,
+                              SimpMessagingTemplate messaging,
+                              @Value("${lucid.snapshot.path:./data/lobbies.snapshot}") Path snapshotPath,
+                              @Value("${lucid.snapshot.reconnect-min-delay-ms:1000}") long reconnectMinDelayMs,
+                              @Value("${lucid.snapshot.reconnect-max-delay-ms:15000}") long reconnectMaxDelayMs) {
+        this.lobbyService = lobbyService;
+        this.messaging = messaging;
+        this.snapshotPath = snapshotPath;
+        this.reconnectMinDelayMs = reconnectMinDelayMs;
+        this.reconnectMaxDelayMs = reconnectMaxDelayMs;
+    }
+
+    @PostConstruct
+    void restore() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            int count = LobbySnapshotCodec.read(lobbyService, in);
+            log.info("Restored " + count + " lobbies in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            log.warning("Could not restore lobby snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+        try {
+            Files.delete(snapshotPath);
+        } catch (IOException e) {
+            log.warning("Could not delete lobby snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void drain() {
+        lobbyService.stopAcceptingLobbies();
+        long start = System.nanoTime();
+        try {
+            int saved = save();
+            log.info("Saved " + saved + " lobbies in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            log.warning("Could not save lobby snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+        ReconnectNoticeDTO notice = new ReconnectNoticeDTO(reconnectMinDelayMs, reconnectMaxDelayMs);
+        for (String roomId : lobbyService.getRoomIds()) {
+            messaging.convertAndSend("/topic/game/" + roomId + "/reconnect", notice);
+        }
+    }
+
+    int save() throws IOException {
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        // write next to the target then move, so a crash mid-write never leaves a truncated snapshot
+        Path tmp = Files.createTempFile(parent, "lobbies", ".tmp");
+        int saved;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            saved = LobbySnapshotCodec.write(lobbyService, out);
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return saved;
+    }
+}
@@ -0,0 +1,160 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.MatchPlayerResult;
+import fr.gamesonweb.lucid_arena_backend.entity.MatchRecord;
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerStats;
+import fr.gamesonweb.lucid_arena_backend.repository.MatchRecordRepository;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persists finished matches off the game threads. Matches are queued, written in batches by a single
+ * thread, and each batch updates the per-player aggregates in the same transaction. Being the only
+ * writer of {@link PlayerStats} it can read-modify-write them without locking. A batch that fails to write
+ * is retried with a growing delay, matches queue up meanwhile; it is only dropped after {@code MAX_ATTEMPTS}.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class MatchHistoryWriter {
+    private static final int BATCH_SIZE = 200;
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int LEADERBOARD_CACHE_SIZE = 100;
+    private static final int MAX_ATTEMPTS = 6;
+    private static final long RETRY_DELAY_MS = 500;
+
+    private final MatchRecordRepository matchRecordRepository;
+    private final PlayerStatsRepository playerStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<MatchRecord> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    // refreshed after every batch, so leaderboard reads are a list copy
+    private volatile List<PlayerStats> leaderboard = List.of();
+    private volatile boolean running;
+    private Thread worker;
+    // batch the worker had not written when it stopped, written by stop() after joining it
+    private volatile List<MatchRecord> unwritten = List.of();
+
+    public void submit(MatchRecord record) {
+        if (!queue.offer(record)) {
+            log.warning("Match history queue full, dropping match of lobby " + record.getLobbyId());
+        }
+    }
+
+    public List<PlayerStats> getLeaderboard(int limit) {
+        if (limit <= LEADERBOARD_CACHE_SIZE) {
+            List<PlayerStats> top = leaderboard;
+            return top.subList(0, Math.min(limit, top.size()));
+        }
+        return playerStatsRepository.findAllByOrderByWinsDescNicknameAsc(Limit.of(limit));
+    }
+
+    @PostConstruct
+    void start() {
+        refreshLeaderboard();
+        running = true;
+        worker = Thread.ofPlatform().name("match-history-writer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        List<MatchRecord> remaining = new ArrayList<>(unwritten);
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += BATCH_SIZE) {
+            List<MatchRecord> batch = remaining.subList(i, Math.min(i + BATCH_SIZE, remaining.size()));
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.severe("Lost " + batch.size() + " matches on shutdown: " + e.getMessage());
+            }
+        }
+    }
+
+    private void run() {
+        List<MatchRecord> batch = new ArrayList<>(BATCH_SIZE);
+        int failures = 0;
+        try {
+            while (running) {
+                if (batch.isEmpty()) {
+                    MatchRecord first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                }
+                try {
+                    write(batch);
+                    batch.clear();
+                    failures = 0;
+                } catch (RuntimeException e) {
+                    failures++;
+                    if (failures >= MAX_ATTEMPTS) {
+                        log.severe("Dropping " + batch.size() + " matches after " + failures + " failed writes: "
+                                + e.getMessage());
+                        batch.clear();
+                        failures = 0;
+                    } else {
+                        // the same batch again: the transaction was rolled back and stats are re-read
+                        long delay = RETRY_DELAY_MS << (failures - 1);
+                        log.warning("Failed to write " + batch.size() + " matches, retrying in " + delay + " ms: "
+                                + e.getMessage());
+                        Thread.sleep(delay);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            unwritten = batch;
+        }
+    }
+
+    private void write(List<MatchRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            matchRecordRepository.saveAll(batch);
+
+            Set<String> nicknames = batch.stream()
+                    .flatMap(record -> record.getPlayers().stream())
+                    .map(MatchPlayerResult::getNickname)
+                    .collect(Collectors.toSet());
+            Map<String, PlayerStats> stats = new HashMap<>(playerStatsRepository.findAllById(nicknames).stream()
+                    .collect(Collectors.toMap(PlayerStats::getNickname, Function.identity())));
+            for (MatchRecord record : batch) {
+                for (MatchPlayerResult result : record.getPlayers()) {
+                    stats.computeIfAbsent(result.getNickname(), PlayerStats::new)
+                            .apply(result, result.getNickname().equals(record.getWinnerNickname()));
+                }
+            }
+            playerStatsRepository.saveAll(stats.values());
+        });
+        refreshLeaderboard();
+    }
+
+    private void refreshLeaderboard() {
+        leaderboard = List.copyOf(
+                playerStatsRepository.findAllByOrderByWinsDescNicknameAsc(Limit.of(LEADERBOARD_CACHE_SIZE)));
+    }
+}
@@ -0,0 +1,100 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.entity.MatchPlayerResult;
+import fr.gamesonweb.lucid_arena_backend.entity.MatchRecord;
+import fr.gamesonweb.lucid_arena_backend.entity.MiniGameOutcomeEntry;
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a running match needs to remember to be recorded once it ends.
+ */
+public class MatchTracker {
+    private final Instant startedAt;
+    private final List<MiniGameOutcomeEntry> miniGames = new ArrayList<>();
+    // nickname -> {played, won}
+    private final Map<String, int[]> miniGameCounts = new HashMap<>();
+
+    public MatchTracker() {
+        this(Instant.now());
+    }
+
+    public MatchTracker(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public synchronized void recordMiniGame(String miniGameName, Collection<String> participants,
+                                            String winnerNickname, int winnerScore) {
+        miniGames.add(new MiniGameOutcomeEntry(miniGameName, winnerNickname, winnerScore));
+        for (String participant : participants) {
+            int[] counts = miniGameCounts.computeIfAbsent(participant, n -> new int[2]);
+            counts[0]++;
+            if (participant.equals(winnerNickname)) {
+                counts[1]++;
+            }
+        }
+    }
+
+    public synchronized MatchRecord toRecord(String lobbyId, GameState state, String winnerNickname) {
+        Instant endedAt = Instant.now();
+        MatchRecord record = new MatchRecord();
+        record.setLobbyId(lobbyId);
+        record.setWinnerNickname(winnerNickname);
+        record.setStartedAt(startedAt);
+        record.setEndedAt(endedAt);
+        record.setDurationMs(Duration.between(startedAt, endedAt).toMillis());
+        List<PlayerProfile> players = state.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            String nickname = players.get(i).getNickname();
+            int[] counts = miniGameCounts.getOrDefault(nickname, new int[2]);
+            record.getPlayers().add(new MatchPlayerResult(nickname, state.getScores()[i], counts[0], counts[1]));
+        }
+        record.getMiniGames().addAll(miniGames);
+        return record;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeLong(startedAt.toEpochMilli());
+        out.writeInt(miniGames.size());
+        for (MiniGameOutcomeEntry entry : miniGames) {
+            out.writeUTF(entry.getMiniGameName());
+            LobbySnapshotCodec.writeNullableString(out, entry.getWinnerNickname());
+            out.writeInt(entry.getWinnerScore());
+        }
+        out.writeInt(miniGameCounts.size());
+        for (Map.Entry<String, int[]> entry : miniGameCounts.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue()[0]);
+            out.writeInt(entry.getValue()[1]);
+        }
+    }
+
+    static MatchTracker readFrom(DataInput in) throws IOException {
+        MatchTracker tracker = new MatchTracker(Instant.ofEpochMilli(in.readLong()));
+        int miniGameCount = in.readInt();
+        for (int i = 0; i < miniGameCount; i++) {
+            tracker.miniGames.add(new MiniGameOutcomeEntry(
+                    in.readUTF(), LobbySnapshotCodec.readNullableString(in), in.readInt()));
+        }
+        int playerCount = in.readInt();
+        for (int i = 0; i < playerCount; i++) {
+            tracker.miniGameCounts.put(in.readUTF(), new int[]{in.readInt(), in.readInt()});
+        }
+        return tracker;
+    }
+}
@@ -0,0 +1,83 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Sorted in-memory copy of every nickname, for availability checks and prefix search without a query.
+ * Keys are the lower-cased nickname followed by the nickname itself, so search ignores case while
+ * "Alice" and "alice" stay distinct entries. Lookups are O(log n), a search is O(log n + limit).
+ * Availability is case-sensitive like the unique index on the nickname column (H2 compares VARCHAR
+ * exactly) and the existsByNickname query it replaced: "alice" can be claimed next to "Alice".
+ * Loaded at startup and updated by {@link #rename} after each committed nickname change; the unique
+ * index on the table stays the authority when two players claim a name at the same time.
+ */
+@Component
+@RequiredArgsConstructor
+@Log
+public class NicknameIndex {
+    private static final char SEPARATOR = '\u0000';
+
+    private final PlayerProfileRepository playerProfileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentSkipListMap<String, String> nicknames = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    void load() {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> all = playerProfileRepository.streamAllNicknames()) {
+                all.forEach(this::add);
+            }
+        });
+        log.info("Indexed " + nicknames.size() + " nicknames in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    // Exact match: "ALICE" is not taken by "alice"
+    public boolean contains(String nickname) {
+        return nicknames.containsKey(key(nickname));
+    }
+
+    // Nicknames starting with prefix, ignoring case, in alphabetical order
+    public List<String> search(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>(limit);
+        for (Map.Entry<String, String> entry : nicknames.tailMap(from).entrySet()) {
+            if (result.size() == limit || !entry.getKey().startsWith(from)) {
+                break;
+            }
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    public void rename(String oldNickname, String newNickname) {
+        if (oldNickname != null) {
+            nicknames.remove(key(oldNickname));
+        }
+        add(newNickname);
+    }
+
+    public int size() {
+        return nicknames.size();
+    }
+
+    private void add(String nickname) {
+        nicknames.put(key(nickname), nickname);
+    }
+
+    private static String key(String nickname) {
+        return nickname.toLowerCase(Locale.ROOT) + SEPARATOR + nickname;
+    }
+}
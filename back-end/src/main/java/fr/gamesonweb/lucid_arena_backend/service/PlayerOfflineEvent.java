@@ -0,0 +1,7 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+/**
+ * Published by {@link PresenceService} when the last session of a player in a lobby goes away.
+ */
+public record PlayerOfflineEvent(String lobbyId, String nickname) {
+}
@@ -0,0 +1,253 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Who is connected where, driven by STOMP session events. A session is bound to a player on CONNECT
+ * (or on its first subscription if the profile was created after connecting) and to a lobby on its first
+ * subscription to one of the lobby's topics. A player may have several
+ * sessions in a lobby (lobby and game sockets), they stay online until the last one closes.
+ * Once it has, the player is still counted online for a grace period, longer than the client's reconnect
+ * delay, so that a dropped socket or the hand-off from the lobby socket to the game socket does not pass
+ * their turn: {@link PlayerOfflineEvent} is only published if they have not come back by then.
+ * Every lookup and update is a constant number of hash map operations. Everything known about a lobby
+ * is forgotten when {@link LobbyService} removes it, so a reused lobby id starts with no one offline.
+ */
+@Service
+@Log
+public class PresenceService implements GameEventListener {
+    private static final String GAME_TOPIC = "/topic/game/";
+    private static final String LOBBY_TOPIC = "/topic/lobby/";
+
+    private final ApplicationEventPublisher events;
+    private final long graceMs;
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    // lobbyId -> nickname -> number of open sessions, 0 during the grace period;
+    // kept until the lobby is removed so that "offline" can be told from "unknown"
+    private final Map<String, Map<String, Integer>> lobbies = new ConcurrentHashMap<>();
+    // lobbyId + '/' + nickname -> end of the running grace period, replaced when the player drops again
+    private final Map<String, ScheduledFuture<?>> graceTimers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService timer;
+
+    private static final class SessionPresence {
+        private final String nickname;
+        private volatile String lobbyId;
+
+        private SessionPresence(String nickname) {
+            this.nickname = nickname;
+        }
+    }
+
+    public PresenceService(ApplicationEventPublisher events, @Value("${lucid.presence.grace-ms:10000}") long graceMs) {
+        this.events = events;
+        this.graceMs = graceMs;
+    }
+
+    @PostConstruct
+    void start() {
+        if (graceMs > 0) {
+            timer = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("presence-grace").daemon().factory());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Message<?> connect = (Message<?>) accessor.getHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+        Map<String, Object> attributes = connect == null ? null
+                : SimpMessageHeaderAccessor.getSessionAttributes(connect.getHeaders());
+        String nickname = attributes == null ? null : (String) attributes.get("nickname");
+        if (nickname != null && accessor.getSessionId() != null) {
+            sessions.put(accessor.getSessionId(), new SessionPresence(nickname));
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionPresence session = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if (session == null && accessor.getSessionId() != null) {
+            // no profile at CONNECT: SessionNicknames adds the nickname to the session once it is created
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            String nickname = attributes == null ? null : (String) attributes.get("nickname");
+            if (nickname != null) {
+                session = sessions.computeIfAbsent(accessor.getSessionId(), id -> new SessionPresence(nickname));
+            }
+        }
+        String lobbyId = lobbyOf(accessor.getDestination());
+        if (session == null || lobbyId == null || lobbyId.equals(session.lobbyId)) {
+            return;
+        }
+        if (session.lobbyId != null) {
+            leave(session.lobbyId, session.nickname);
+        }
+        session.lobbyId = lobbyId;
+        lobbies.computeIfAbsent(lobbyId, id -> new ConcurrentHashMap<>()).merge(session.nickname, 1, Integer::sum);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        // removal makes repeated disconnect events for the same session harmless
+        SessionPresence session = sessions.remove(event.getSessionId());
+        if (session != null && session.lobbyId != null) {
+            leave(session.lobbyId, session.nickname);
+        }
+    }
+
+    @Override
+    public void onStateChanged(String lobbyId, GameState state) {
+    }
+
+    @Override
+    public void onMiniGameAnnounced(String lobbyId, String miniGameName, String soloPlayer) {
+    }
+
+    @Override
+    public void onLobbyRemoved(String lobbyId) {
+        lobbies.remove(lobbyId);
+        String prefix = lobbyId + '/';
+        graceTimers.entrySet().removeIf(entry -> {
+            if (!entry.getKey().startsWith(prefix)) {
+                return false;
+            }
+            entry.getValue().cancel(false);
+            return true;
+        });
+        // sessions still open on the removed lobby must not count against a new lobby with the same id
+        for (SessionPresence session : sessions.values()) {
+            if (lobbyId.equals(session.lobbyId)) {
+                session.lobbyId = null;
+            }
+        }
+    }
+
+    // Players without a socket (server-side bots) stay online for the lifetime of the lobby
+    public void attach(String lobbyId, String nickname) {
+        lobbies.computeIfAbsent(lobbyId, id -> new ConcurrentHashMap<>()).merge(nickname, 1, Integer::sum);
+    }
+
+    /**
+     * Players expected in a lobby who never opened a socket there are otherwise never offline. Past their
+     * deadline they are treated as having left: offline from now on, and {@link PlayerOfflineEvent} is published.
+     * @return the players who had not shown up
+     */
+    public List<String> expireNoShows(String lobbyId, Collection<String> expected) {
+        Map<String, Integer> players = lobbies.computeIfAbsent(lobbyId, id -> new ConcurrentHashMap<>());
+        List<String> absent = expected.stream().filter(nickname -> !players.containsKey(nickname)).toList();
+        for (String nickname : absent) {
+            log.info("Player " + nickname + " never showed up in lobby " + lobbyId);
+            try {
+                events.publishEvent(new PlayerOfflineEvent(lobbyId, nickname));
+            } catch (RuntimeException e) {
+                log.warning("Failed to handle " + nickname + " missing lobby " + lobbyId + ": " + e.getMessage());
+            }
+        }
+        return absent;
+    }
+
+    public boolean isOnline(String lobbyId, String nickname) {
+        Map<String, Integer> players = lobbies.get(lobbyId);
+        return players != null && players.containsKey(nickname);
+    }
+
+    // Only true for a lobby we have seen sessions for, so lobbies without any socket (tests, bots) play on
+    public boolean isOffline(String lobbyId, String nickname) {
+        Map<String, Integer> players = lobbies.get(lobbyId);
+        return players != null && !players.containsKey(nickname);
+    }
+
+    public int onlineCount(String lobbyId) {
+        Map<String, Integer> players = lobbies.get(lobbyId);
+        return players == null ? 0 : players.size();
+    }
+
+    public Set<String> onlinePlayers(String lobbyId) {
+        Map<String, Integer> players = lobbies.get(lobbyId);
+        return players == null ? Set.of() : players.keySet();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    private void leave(String lobbyId, String nickname) {
+        Map<String, Integer> players = lobbies.get(lobbyId);
+        if (players == null) {
+            return;
+        }
+        Integer left = players.computeIfPresent(nickname, (name, count) -> count - 1);
+        if (left == null || left > 0) {
+            return;
+        }
+        if (timer == null) {
+            expire(lobbyId, nickname);
+            return;
+        }
+        ScheduledFuture<?> previous = graceTimers.put(lobbyId + '/' + nickname,
+                timer.schedule(() -> expire(lobbyId, nickname), graceMs, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            // came back and dropped again: the grace period starts over
+            previous.cancel(false);
+        }
+    }
+
+    // End of the grace period: offline unless a session came back in the meantime
+    private void expire(String lobbyId, String nickname) {
+        graceTimers.remove(lobbyId + '/' + nickname);
+        Map<String, Integer> players = lobbies.get(lobbyId);
+        if (players == null || !players.remove(nickname, 0)) {
+            return;
+        }
+        log.info("Player " + nickname + " went offline in lobby " + lobbyId);
+        try {
+            events.publishEvent(new PlayerOfflineEvent(lobbyId, nickname));
+        } catch (RuntimeException e) {
+            log.warning("Failed to handle " + nickname + " going offline in lobby " + lobbyId + ": " + e.getMessage());
+        }
+    }
+
+    static String lobbyOf(String destination) {
+        String prefix;
+        if (destination == null) {
+            return null;
+        } else if (destination.startsWith(GAME_TOPIC)) {
+            prefix = GAME_TOPIC;
+        } else if (destination.startsWith(LOBBY_TOPIC)) {
+            prefix = LOBBY_TOPIC;
+        } else {
+            return null;
+        }
+        int end = destination.indexOf('/', prefix.length());
+        return end < 0 ? destination.substring(prefix.length()) : destination.substring(prefix.length(), end);
+    }
+}
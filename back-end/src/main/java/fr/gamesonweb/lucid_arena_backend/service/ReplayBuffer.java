@@ -0,0 +1,57 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ReplayedMessageDTO;
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the last messages broadcast to a lobby. Not thread safe, callers lock on it.
+ */
+class ReplayBuffer {
+    private final ReplayedMessageDTO[] entries;
+    private long firstSeq = 1;
+    private long nextSeq = 1;
+    private GameState latestState;
+
+    ReplayBuffer(int capacity) {
+        this.entries = new ReplayedMessageDTO[capacity];
+    }
+
+    long append(String destination, Object payload) {
+        long seq = nextSeq++;
+        entries[(int) (seq % entries.length)] = new ReplayedMessageDTO(seq, destination, payload);
+        if (payload instanceof GameState state) {
+            latestState = state;
+        }
+        return seq;
+    }
+
+    // Carries on the numbering of a lobby restored from a snapshot; nothing before it can be replayed
+    void startAfter(long seq) {
+        firstSeq = seq + 1;
+        nextSeq = seq + 1;
+    }
+
+    long lastSeq() {
+        return nextSeq - 1;
+    }
+
+    GameState latestState() {
+        return latestState;
+    }
+
+    // null when some of the messages after lastSeq were overwritten (or lastSeq is unknown)
+    List<ReplayedMessageDTO> since(long lastSeq) {
+        long oldest = Math.max(firstSeq, nextSeq - entries.length);
+        if (lastSeq < 0 || lastSeq + 1 < oldest || lastSeq >= nextSeq) {
+            return null;
+        }
+        List<ReplayedMessageDTO> missed = new ArrayList<>((int) (nextSeq - lastSeq - 1));
+        for (long seq = lastSeq + 1; seq < nextSeq; seq++) {
+            missed.add(entries[(int) (seq % entries.length)]);
+        }
+        return missed;
+    }
+}
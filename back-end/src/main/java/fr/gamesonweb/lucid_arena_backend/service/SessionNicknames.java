@@ -0,0 +1,65 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the "nickname" attribute of open STOMP sessions in step with the player's profile. The handshake
+ * resolves it once, so a player who creates their profile after connecting would stay a stranger to chat,
+ * presence and the turn check until they reconnect: {@link #rename} writes it into every open session of
+ * the user once the profile is saved.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionNicknames {
+    private final PlayerProfileRepository playerProfileRepository;
+    // sessionId -> session attributes, holding the Google sub as "user"
+    private final Map<String, Map<String, Object>> sessions = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Message<?> connect = (Message<?>) accessor.getHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+        Map<String, Object> attributes = connect == null ? null
+                : SimpMessageHeaderAccessor.getSessionAttributes(connect.getHeaders());
+        String user = attributes == null ? null : (String) attributes.get("user");
+        if (user == null || accessor.getSessionId() == null) {
+            return;
+        }
+        // registered before the lookup: a profile saved since the handshake is seen by one or the other
+        sessions.put(accessor.getSessionId(), attributes);
+        if (!attributes.containsKey("nickname")) {
+            playerProfileRepository.findById(user)
+                    .map(PlayerProfile::getNickname)
+                    .ifPresent(nickname -> attributes.put("nickname", nickname));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    // Called once the profile is saved; nickname changes are rare, a scan of the open sessions is enough
+    public void rename(String user, String nickname) {
+        for (Map<String, Object> attributes : sessions.values()) {
+            if (user.equals(attributes.get("user"))) {
+                attributes.put("nickname", nickname);
+            }
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,119 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.TournamentStandingsDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bracket of one tournament. Only the tournament scheduler thread mutates it; readers get the
+ * immutable standings published after each change.
+ */
+class Tournament {
+    static final String RUNNING = "RUNNING";
+    static final String FINISHED = "FINISHED";
+    static final String CANCELLED = "CANCELLED";
+
+    private final String id;
+    private final int lobbySize;
+    // per round, lobbyId -> seated players, in seeding order
+    private final List<Map<String, List<String>>> rounds = new ArrayList<>();
+    // lobbyId -> winner, for every round
+    private final Map<String, String> winners = new LinkedHashMap<>();
+    // lobbies over without a winner: nobody goes through from them
+    private final Set<String> forfeits = new HashSet<>();
+    private String status = RUNNING;
+    private String champion;
+    private volatile TournamentStandingsDTO standings;
+
+    Tournament(String id, int lobbySize) {
+        this.id = id;
+        this.lobbySize = lobbySize;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    int getRound() {
+        return rounds.size();
+    }
+
+    /**
+     * Seeds the players of the next round: lobby k gets seeds k, k + n, k + 2n... so that the best
+     * seeds meet as late as possible, and lobby sizes differ by at most one.
+     */
+    Map<String, List<String>> seedRound(List<String> players) {
+        int lobbyCount = (players.size() + lobbySize - 1) / lobbySize;
+        int round = rounds.size() + 1;
+        Map<String, List<String>> lobbies = new LinkedHashMap<>();
+        for (int k = 0; k < lobbyCount; k++) {
+            lobbies.put(id + "-r" + round + "-" + (k + 1), new ArrayList<>(lobbySize));
+        }
+        List<List<String>> seats = new ArrayList<>(lobbies.values());
+        for (int i = 0; i < players.size(); i++) {
+            seats.get(i % lobbyCount).add(players.get(i));
+        }
+        rounds.add(lobbies);
+        return lobbies;
+    }
+
+    void recordWinner(String lobbyId, String winner) {
+        winners.put(lobbyId, winner);
+    }
+
+    void recordForfeit(String lobbyId) {
+        forfeits.add(lobbyId);
+    }
+
+    // Winners of the current round in seeding order, or null while a lobby is still playing;
+    // empty if every lobby of the round was forfeited
+    List<String> roundWinners() {
+        List<String> result = new ArrayList<>();
+        for (String lobbyId : rounds.getLast().keySet()) {
+            String winner = winners.get(lobbyId);
+            if (winner != null) {
+                result.add(winner);
+            } else if (!forfeits.contains(lobbyId)) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    void finish(String champion) {
+        this.champion = champion;
+        this.status = FINISHED;
+    }
+
+    void cancel() {
+        this.status = CANCELLED;
+    }
+
+    boolean isRunning() {
+        return RUNNING.equals(status);
+    }
+
+    TournamentStandingsDTO getStandings() {
+        return standings;
+    }
+
+    TournamentStandingsDTO publishStandings() {
+        List<TournamentStandingsDTO.Round> roundDTOs = new ArrayList<>(rounds.size());
+        for (int r = 0; r < rounds.size(); r++) {
+            List<TournamentStandingsDTO.Lobby> lobbies = new ArrayList<>(rounds.get(r).size());
+            for (Map.Entry<String, List<String>> lobby : rounds.get(r).entrySet()) {
+                lobbies.add(new TournamentStandingsDTO.Lobby(
+                        lobby.getKey(), List.copyOf(lobby.getValue()), winners.get(lobby.getKey()),
+                        forfeits.contains(lobby.getKey())));
+            }
+            roundDTOs.add(new TournamentStandingsDTO.Round(r + 1, List.copyOf(lobbies)));
+        }
+        standings = new TournamentStandingsDTO(id, status, champion, List.copyOf(roundDTOs));
+        return standings;
+    }
+}
@@ -0,0 +1,209 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.TournamentStandingsDTO;
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs knockout tournaments on top of {@link LobbyService}. Each round seeds the remaining players into
+ * lobbies, creates and starts them in one batch, and the winners reported by the engine move on to the
+ * next round until one is left. All bracket changes happen on a single scheduler thread, so brackets
+ * need no locking, and standings are immutable snapshots readable from any thread.
+ * A lobby removed before it has a winner is forfeited: nobody goes through from it. Entrants who have not
+ * opened a socket in their lobby by the no-show deadline are out: their turns are passed, a lone player
+ * who did show up wins by walkover, and a lobby nobody joined is forfeited.
+ */
+@Service
+@Log
+public class TournamentService implements GameEventListener {
+    private final LobbyService lobbyService;
+    private final SimpMessagingTemplate messaging;
+    private final PresenceService presence;
+    private final long noShowMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("tournament-scheduler").daemon().factory());
+    private final Map<String, Tournament> tournaments = new ConcurrentHashMap<>();
+    // running tournament lobbies, removed once their winner is known or they are forfeited
+    private final Map<String, Tournament> tournamentByLobby = new ConcurrentHashMap<>();
+    private final AtomicLong nextTournamentId = new AtomicLong();
+    private final AtomicLong lobbiesStarted = new AtomicLong();
+    private final AtomicLong batchNanos = new AtomicLong();
+
+    public TournamentService(LobbyService lobbyService,
+                             SimpMessagingTemplate messaging,
+                             PresenceService presence,
+                             @Value("${lucid.tournament.no-show-ms:120000}") long noShowMs) {
+        this.lobbyService = lobbyService;
+        this.messaging = messaging;
+        this.presence = presence;
+        this.noShowMs = noShowMs;
+    }
+
+    @PostConstruct
+    void register() {
+        lobbyService.addListener(this);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // Players are given best seed first; duplicates are dropped
+    public String create(List<String> players, int lobbySize) {
+        List<String> seeds = List.copyOf(new LinkedHashSet<>(players));
+        if (seeds.size() < 2 || lobbySize < 2) {
+            throw new IllegalArgumentException("A tournament needs at least 2 players and lobbies of 2");
+        }
+        // lobby ids derive from the tournament id: the random part keeps players from creating them first
+        String id = "t" + nextTournamentId.incrementAndGet() + "-" + Integer.toHexString(ThreadLocalRandom.current().nextInt());
+        Tournament tournament = new Tournament(id, lobbySize);
+        tournaments.put(tournament.getId(), tournament);
+        tournament.publishStandings();
+        scheduler.execute(() -> startRound(tournament, seeds));
+        return tournament.getId();
+    }
+
+    public TournamentStandingsDTO getStandings(String tournamentId) {
+        Tournament tournament = tournaments.get(tournamentId);
+        return tournament == null ? null : tournament.getStandings();
+    }
+
+    public long getLobbiesStarted() {
+        return lobbiesStarted.get();
+    }
+
+    // Lobbies created and started per second of round batch time
+    public double getLobbiesPerSecond() {
+        long nanos = batchNanos.get();
+        return nanos == 0 ? 0 : lobbiesStarted.get() * 1e9 / nanos;
+    }
+
+    @Override
+    public void onStateChanged(String lobbyId, GameState state) {
+        if (state.getWinner() == null) {
+            return;
+        }
+        // called under the lobby lock: only hand the result over to the scheduler
+        Tournament tournament = tournamentByLobby.remove(lobbyId);
+        if (tournament != null) {
+            String winner = state.getWinner();
+            scheduler.execute(() -> onLobbyFinished(tournament, lobbyId, winner));
+        }
+    }
+
+    @Override
+    public void onMiniGameAnnounced(String lobbyId, String miniGameName, String soloPlayer) {
+    }
+
+    @Override
+    public void onLobbyRemoved(String lobbyId) {
+        // still in the map: removed before it had a winner (reaper, admin, soak teardown)
+        Tournament tournament = tournamentByLobby.remove(lobbyId);
+        if (tournament != null) {
+            scheduler.execute(() -> onLobbyFinished(tournament, lobbyId, null));
+        }
+    }
+
+    // winner is null for a forfeited lobby
+    private void onLobbyFinished(Tournament tournament, String lobbyId, String winner) {
+        if (!tournament.isRunning()) {
+            return;
+        }
+        if (winner == null) {
+            tournament.recordForfeit(lobbyId);
+            log.info("Tournament " + tournament.getId() + ": " + lobbyId + " forfeited");
+        } else {
+            tournament.recordWinner(lobbyId, winner);
+            log.info("Tournament " + tournament.getId() + ": " + winner + " won " + lobbyId);
+        }
+        List<String> winners = tournament.roundWinners();
+        if (winners == null) {
+            publish(tournament);
+        } else if (winners.isEmpty()) {
+            tournament.cancel();
+            log.info("Tournament " + tournament.getId() + " cancelled: every lobby of the round was forfeited");
+            publish(tournament);
+        } else if (winners.size() == 1) {
+            tournament.finish(winners.getFirst());
+            log.info("Tournament " + tournament.getId() + " won by " + winners.getFirst());
+            publish(tournament);
+        } else {
+            startRound(tournament, winners);
+        }
+    }
+
+    private void startRound(Tournament tournament, List<String> players) {
+        Map<String, List<String>> lobbies = tournament.seedRound(players);
+        long start = System.nanoTime();
+        int started = 0;
+        for (Map.Entry<String, List<String>> lobby : lobbies.entrySet()) {
+            String lobbyId = lobby.getKey();
+            if (lobby.getValue().size() == 1) {
+                // bye: a lone player goes through without playing
+                tournament.recordWinner(lobbyId, lobby.getValue().getFirst());
+                continue;
+            }
+            if (!lobbyService.createRoom(lobbyId)) {
+                log.warning("Tournament " + tournament.getId() + " cancelled: "
+                        + (lobbyService.isAcceptingLobbies() ? "lobby " + lobbyId + " already exists" : "server is draining"));
+                tournament.cancel();
+                break;
+            }
+            for (String player : lobby.getValue()) {
+                lobbyService.addPlayerToRoom(lobbyId, player);
+            }
+            tournamentByLobby.put(lobbyId, tournament);
+            GameState state = lobbyService.startGame(lobbyId);
+            messaging.convertAndSend("/topic/lobby/" + lobbyId + "/start", state);
+            List<String> seated = List.copyOf(lobby.getValue());
+            scheduler.schedule(() -> checkNoShows(tournament, lobbyId, seated), noShowMs, TimeUnit.MILLISECONDS);
+            started++;
+        }
+        batchNanos.addAndGet(System.nanoTime() - start);
+        lobbiesStarted.addAndGet(started);
+        log.info("Tournament " + tournament.getId() + " round " + tournament.getRound() + ": started "
+                + started + " lobbies in " + (System.nanoTime() - start) / 1_000 + " µs");
+        publish(tournament);
+    }
+
+    private void checkNoShows(Tournament tournament, String lobbyId, List<String> seated) {
+        if (tournamentByLobby.get(lobbyId) != tournament) {
+            return; // already over
+        }
+        List<String> present = seated.stream().filter(player -> presence.isOnline(lobbyId, player)).toList();
+        if (present.size() == seated.size()) {
+            return;
+        }
+        if (present.size() > 1) {
+            // the game goes on without them
+            presence.expireNoShows(lobbyId, seated);
+            return;
+        }
+        if (!tournamentByLobby.remove(lobbyId, tournament)) {
+            return; // a winner came in meanwhile
+        }
+        // nobody left to play against: walkover for the one who came, forfeit if nobody did
+        lobbyService.removeLobby(lobbyId);
+        onLobbyFinished(tournament, lobbyId, present.isEmpty() ? null : present.getFirst());
+    }
+
+    private void publish(Tournament tournament) {
+        messaging.convertAndSend("/topic/tournament/" + tournament.getId(), tournament.publishStandings());
+    }
+}
@@ -0,0 +1,253 @@
+package fr.gamesonweb.lucid_arena_backend.simulation;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.entity.MiniGameResult;
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+import fr.gamesonweb.lucid_arena_backend.service.BoardGenerator;
+import fr.gamesonweb.lucid_arena_backend.service.GameRules;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Headless Monte Carlo runner for balance tuning: plays full games through {@link GameRules} and
+ * {@link BoardGenerator}, without Spring, STOMP or JPA, split across all cores with fork-join.
+ * Also reports raw engine throughput in games per second.
+ * <p>
+ * Only the players' mini-game scores are modelled: in a multi-player game every player scores uniformly at
+ * random, a solo score is drawn from a normal distribution. Who wins and what it is worth is then decided
+ * by the same {@link GameRules} calls as the live lobbies.
+ * <pre>
+ * mvn -q compile
+ * java -cp target/classes fr.gamesonweb.lucid_arena_backend.simulation.GameSimulator \
+ *      [games=1000000] [players=4] [clickerMean=85] [clickerSd=20] [rainingMean=12] [rainingSd=5]
+ * </pre>
+ */
+public final class GameSimulator {
+    private static final int MAX_ROLLS = 2_000; // games still running after this are counted as unfinished
+    private static final int LEAF_GAMES = 5_000;
+    private static final int MULTI_SCORE_RANGE = 1_000;
+
+    public record Config(int games, int players,
+                         double clickerMean, double clickerSd,
+                         double rainingMean, double rainingSd) {
+    }
+
+    /**
+     * Mergeable counters of a batch of games.
+     */
+    public static final class Stats {
+        final long[] rollsHistogram = new long[MAX_ROLLS + 1];
+        final long[] winsBySeat;
+        long games;
+        long unfinished;
+        long miniGames;
+        long soloGames;
+        long soloWins;
+
+        Stats(int players) {
+            winsBySeat = new long[players];
+        }
+
+        Stats merge(Stats other) {
+            for (int i = 0; i < rollsHistogram.length; i++) {
+                rollsHistogram[i] += other.rollsHistogram[i];
+            }
+            for (int i = 0; i < winsBySeat.length; i++) {
+                winsBySeat[i] += other.winsBySeat[i];
+            }
+            games += other.games;
+            unfinished += other.unfinished;
+            miniGames += other.miniGames;
+            soloGames += other.soloGames;
+            soloWins += other.soloWins;
+            return this;
+        }
+
+        public long finished() {
+            return games - unfinished;
+        }
+
+        public double meanRolls() {
+            long total = 0;
+            for (int i = 0; i < rollsHistogram.length; i++) {
+                total += i * rollsHistogram[i];
+            }
+            return finished() == 0 ? 0 : (double) total / finished();
+        }
+
+        // rolls needed by the given fraction of finished games
+        public int rollsPercentile(double fraction) {
+            long target = (long) Math.ceil(fraction * finished());
+            long seen = 0;
+            for (int i = 0; i < rollsHistogram.length; i++) {
+                seen += rollsHistogram[i];
+                if (seen >= target && seen > 0) {
+                    return i;
+                }
+            }
+            return MAX_ROLLS;
+        }
+
+        public double winRate(int seat) {
+            return finished() == 0 ? 0 : (double) winsBySeat[seat] / finished();
+        }
+
+        public double soloWinRate() {
+            return soloGames == 0 ? 0 : (double) soloWins / soloGames;
+        }
+    }
+
+    private GameSimulator() {
+    }
+
+    public static Stats simulate(Config config, long seed) {
+        return ForkJoinPool.commonPool().invoke(
+                new Batch(config, new BoardGenerator(), new SplittableRandom(seed), 0, config.games(), true));
+    }
+
+    // Same batches and random streams as simulate, on the calling thread: the results are identical
+    static Stats simulateSequentially(Config config, long seed) {
+        return new Batch(config, new BoardGenerator(), new SplittableRandom(seed), 0, config.games(), false).compute();
+    }
+
+    private static final class Batch extends RecursiveTask<Stats> {
+        private final Config config;
+        private final BoardGenerator boards;
+        private final SplittableRandom random;
+        private final int from;
+        private final int to;
+        private final boolean fork;
+
+        private Batch(Config config, BoardGenerator boards, SplittableRandom random, int from, int to, boolean fork) {
+            this.config = config;
+            this.boards = boards;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.fork = fork;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= LEAF_GAMES) {
+                Stats stats = new Stats(config.players());
+                List<PlayerProfile> players = IntStream.range(0, config.players())
+                        .mapToObj(i -> new PlayerProfile("player" + i))
+                        .toList();
+                for (int i = from; i < to; i++) {
+                    play(config, boards, players, random, stats);
+                }
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            // split before forking: each half gets the same stream whichever thread runs it
+            Batch left = new Batch(config, boards, random.split(), from, mid, fork);
+            Batch right = new Batch(config, boards, random.split(), mid, to, fork);
+            if (!fork) {
+                return right.compute().merge(left.compute());
+            }
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+
+    // Same rule calls as LobbyService.roll, computeOutcome and updateScoreMiniGameSolo
+    static void play(Config config, BoardGenerator boards, List<PlayerProfile> players,
+                     SplittableRandom random, Stats stats) {
+        GameState state = new GameState();
+        state.setPlayers(players);
+        state.setPositions(new int[players.size()]);
+        state.setScores(new int[players.size()]);
+        state.setBoardTypes(boards.generate(LobbyService.TILE_COUNT, random));
+        stats.games++;
+
+        for (int rolls = 1; rolls <= MAX_ROLLS; rolls++) {
+            int roller = state.getCurrentPlayer();
+            String miniGame = GameRules.roll(state, random);
+            if (!miniGame.isEmpty()) {
+                stats.miniGames++;
+                if (GameRules.isSolo(miniGame)) {
+                    stats.soloGames++;
+                    if (GameRules.isSoloWin(miniGame, soloScore(config, miniGame, random))) {
+                        stats.soloWins++;
+                        GameRules.awardMiniGame(state, roller);
+                    }
+                } else {
+                    MiniGameResult result = new MiniGameResult();
+                    for (PlayerProfile player : players) {
+                        result.addPlayerScore(player.getNickname(), random.nextInt(MULTI_SCORE_RANGE));
+                    }
+                    Map.Entry<String, Integer> best = GameRules.multiWinner(result.getPlayerScores());
+                    GameRules.awardMiniGame(state, seatOf(players, best.getKey()));
+                }
+            }
+            GameRules.advanceTurn(state);
+
+            int winner = GameRules.winnerIndex(state);
+            if (winner != -1) {
+                stats.rollsHistogram[rolls]++;
+                stats.winsBySeat[winner]++;
+                return;
+            }
+        }
+        stats.unfinished++;
+    }
+
+    private static int seatOf(List<PlayerProfile> players, String nickname) {
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.get(seat).getNickname().equals(nickname)) {
+                return seat;
+            }
+        }
+        throw new IllegalArgumentException("Not seated: " + nickname);
+    }
+
+    private static int soloScore(Config config, String miniGame, SplittableRandom random) {
+        boolean clicker = miniGame.equals("ClickerGame");
+        double mean = clicker ? config.clickerMean() : config.rainingMean();
+        double sd = clicker ? config.clickerSd() : config.rainingSd();
+        return (int) Math.round(random.nextGaussian(mean, sd));
+    }
+
+    public static void main(String[] args) {
+        Config config = new Config(
+                arg(args, 0, 1_000_000),
+                arg(args, 1, 4),
+                arg(args, 2, 85),
+                arg(args, 3, 20),
+                arg(args, 4, 12),
+                arg(args, 5, 5));
+
+        // warm-up so the timed run measures compiled code
+        simulate(new Config(Math.min(config.games(), 100_000), config.players(), config.clickerMean(),
+                config.clickerSd(), config.rainingMean(), config.rainingSd()), 1);
+
+        long start = System.nanoTime();
+        Stats stats = simulate(config, System.nanoTime());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%,d games of %d players on %d cores in %.2f s: %,.0f games/s%n",
+                stats.games, config.players(), ForkJoinPool.commonPool().getParallelism(), seconds,
+                stats.games / seconds);
+        System.out.printf("unfinished after %d rolls: %,d (%.3f%%)%n", MAX_ROLLS, stats.unfinished,
+                100.0 * stats.unfinished / stats.games);
+        System.out.printf("rolls per game: mean %.1f, p10 %d, p50 %d, p90 %d, p99 %d%n", stats.meanRolls(),
+                stats.rollsPercentile(0.10), stats.rollsPercentile(0.50), stats.rollsPercentile(0.90),
+                stats.rollsPercentile(0.99));
+        System.out.printf("mini-games per game: %.2f, solo win rate %.1f%%%n",
+                (double) stats.miniGames / stats.games, 100 * stats.soloWinRate());
+        for (int seat = 0; seat < config.players(); seat++) {
+            System.out.printf("seat %d win rate: %.2f%%%n", seat, 100 * stats.winRate(seat));
+        }
+    }
+
+    private static int arg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
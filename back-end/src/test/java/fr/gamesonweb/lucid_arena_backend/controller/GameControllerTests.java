@@ -0,0 +1,60 @@
+package fr.gamesonweb.lucid_arena_backend.controller;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import fr.gamesonweb.lucid_arena_backend.service.BoardGenerator;
+import fr.gamesonweb.lucid_arena_backend.service.DiscordNotifier;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyBroadcaster;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
+import fr.gamesonweb.lucid_arena_backend.service.MatchHistoryWriter;
+import fr.gamesonweb.lucid_arena_backend.service.PresenceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GameControllerTests {
+
+	@Test
+	void reconnectStormDoesNotBroadcastToLobby() {
+		SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+		LobbyBroadcaster broadcaster = new LobbyBroadcaster(messaging, 0, 1);
+		LobbyService lobbyService = new LobbyService(new BoardGenerator(), broadcaster, mock(DiscordNotifier.class),
+				mock(MatchHistoryWriter.class), new PresenceService(event -> {}, 0));
+		GameController controller = new GameController(lobbyService, mock(PlayerProfileRepository.class));
+
+		int players = 4;
+		int reconnectsPerPlayer = 25;
+		lobbyService.createRoom("room");
+		for (int i = 0; i < players; i++) {
+			lobbyService.addPlayerToRoom("room", "player" + i);
+		}
+
+		long framesBefore = broadcaster.getSentFrameCount();
+		GameState reply = null;
+		for (int i = 0; i < players * reconnectsPerPlayer; i++) {
+			reply = controller.ping("room");
+		}
+
+		// before: every ping was a lobby broadcast fanned out to every subscriber (players * pings frames),
+		// now the only frame of a ping is its reply to the pinging session
+		assertEquals(framesBefore, broadcaster.getSentFrameCount());
+		assertEquals(players, reply.getPlayers().size());
+		assertArrayEquals(lobbyService.getGameState("room").getScores(), reply.getScores());
+		assertNotSame(lobbyService.getGameState("room"), reply);
+
+		// the count does see lobby broadcasts: one state change is one frame on the lobby topic
+		lobbyService.broadcastState("room", lobbyService.getGameState("room"));
+		assertEquals(framesBefore + 1, broadcaster.getSentFrameCount());
+		verify(messaging, times(1)).convertAndSend(eq("/topic/game/room"), any(GameState.class), anyMap());
+	}
+
+}
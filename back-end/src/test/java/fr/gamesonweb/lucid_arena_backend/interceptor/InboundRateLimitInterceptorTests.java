@@ -0,0 +1,143 @@
+package fr.gamesonweb.lucid_arena_backend.interceptor;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.service.BoardGenerator;
+import fr.gamesonweb.lucid_arena_backend.service.DiscordNotifier;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyBroadcaster;
+import fr.gamesonweb.lucid_arena_backend.service.LobbyService;
+import fr.gamesonweb.lucid_arena_backend.service.MatchHistoryWriter;
+import fr.gamesonweb.lucid_arena_backend.service.PresenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class InboundRateLimitInterceptorTests {
+
+	private final MessageChannel channel = mock(MessageChannel.class);
+	private LobbyService lobbyService;
+	private String currentPlayer;
+	private String otherPlayer;
+
+	@BeforeEach
+	void setUp() {
+		lobbyService = new LobbyService(new BoardGenerator(),
+				new LobbyBroadcaster(mock(SimpMessagingTemplate.class), 0, 1), mock(DiscordNotifier.class),
+				mock(MatchHistoryWriter.class), new PresenceService(event -> {}, 0));
+		lobbyService.createRoom("room");
+		lobbyService.addPlayerToRoom("room", "alice");
+		lobbyService.addPlayerToRoom("room", "bob");
+		GameState state = lobbyService.getGameState("room");
+		currentPlayer = state.getPlayers().get(state.getCurrentPlayer()).getNickname();
+		otherPlayer = currentPlayer.equals("alice") ? "bob" : "alice";
+	}
+
+	// session burst and lobby burst given, no refill during the test
+	private InboundRateLimitInterceptor interceptor(double sessionBurst, double lobbyBurst) {
+		InboundRateLimitInterceptor interceptor =
+				new InboundRateLimitInterceptor(lobbyService, sessionBurst, 0, lobbyBurst, 0, 5, 0);
+		lobbyService.addListener(interceptor);
+		return interceptor;
+	}
+
+	private static Message<byte[]> send(String sessionId, String nickname, String destination) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		accessor.setSessionId(sessionId);
+		accessor.setDestination(destination);
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("nickname", nickname);
+		accessor.setSessionAttributes(attributes);
+		return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+	}
+
+	@Test
+	void dropsCommandsForUnknownLobbies() {
+		InboundRateLimitInterceptor interceptor = interceptor(10, 10);
+
+		assertNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/missing/roll"), channel));
+		assertNull(interceptor.preSend(send("s1", currentPlayer, "/app/lobby/missing/chat"), channel));
+		assertEquals(2, interceptor.getRejectedCount());
+	}
+
+	@Test
+	void rejectsRollsOutOfTurn() {
+		InboundRateLimitInterceptor interceptor = interceptor(10, 10);
+
+		assertNull(interceptor.preSend(send("s2", otherPlayer, "/app/game/room/roll"), channel));
+		assertEquals(1, interceptor.getRejectedCount());
+		assertNotNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/room/roll"), channel));
+		// only rolls are tied to the turn
+		assertNotNull(interceptor.preSend(send("s2", otherPlayer, "/app/game/room/ping"), channel));
+	}
+
+	@Test
+	void throttlesPastTheSessionBurst() {
+		InboundRateLimitInterceptor interceptor = interceptor(2, 10);
+
+		assertNotNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/room/ping"), channel));
+		assertNotNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/room/ping"), channel));
+		assertNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/room/ping"), channel));
+		// another session has its own bucket
+		assertNotNull(interceptor.preSend(send("s2", otherPlayer, "/app/game/room/ping"), channel));
+		assertEquals(1, interceptor.getThrottledCount());
+	}
+
+	@Test
+	void throttlesPastTheLobbyBurst() {
+		InboundRateLimitInterceptor interceptor = interceptor(10, 2);
+
+		assertNotNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/room/ping"), channel));
+		assertNotNull(interceptor.preSend(send("s2", otherPlayer, "/app/game/room/ping"), channel));
+		assertNull(interceptor.preSend(send("s3", otherPlayer, "/app/game/room/ping"), channel));
+		assertEquals(1, interceptor.getThrottledCount());
+	}
+
+	@Test
+	void shedsOnlyGameCommandsWhenTheInboundQueueIsFull() {
+		InboundRateLimitInterceptor interceptor = interceptor(10, 10);
+		int[] queued = {4};
+		interceptor.watchInboundQueue(() -> queued[0], 5);
+
+		assertNotNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/room/ping"), channel));
+		queued[0] = 5;
+		assertNull(interceptor.preSend(send("s1", currentPlayer, "/app/game/room/roll"), channel));
+		assertEquals(1, interceptor.getShedCount());
+
+		// protocol frames and chat are left to the executor, which runs them on the caller once full
+		for (SimpMessageType type : new SimpMessageType[]{SimpMessageType.CONNECT, SimpMessageType.SUBSCRIBE,
+				SimpMessageType.UNSUBSCRIBE, SimpMessageType.DISCONNECT}) {
+			SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+			accessor.setSessionId("s2");
+			accessor.setDestination("/topic/game/room");
+			Message<byte[]> frame = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+			assertNotNull(interceptor.preSend(frame, channel), type.name());
+		}
+		assertNotNull(interceptor.preSend(send("s2", otherPlayer, "/app/lobby/room/chat"), channel));
+		assertEquals(1, interceptor.getShedCount());
+		assertEquals(0, interceptor.getThrottledCount());
+	}
+
+	@Test
+	void forgetsTheLobbyBucketOnceTheLobbyIsRemoved() {
+		InboundRateLimitInterceptor interceptor = interceptor(10, 10);
+		interceptor.preSend(send("s1", currentPlayer, "/app/game/room/ping"), channel);
+		assertEquals(1, interceptor.getLobbyBucketCount());
+
+		lobbyService.removeLobby("room");
+
+		assertEquals(0, interceptor.getLobbyBucketCount());
+	}
+
+}
@@ -0,0 +1,45 @@
+package fr.gamesonweb.lucid_arena_backend.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void allowsABurstUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+		assertTrue(bucket.tryAcquire(0));
+		assertTrue(bucket.tryAcquire(0));
+		assertTrue(bucket.tryAcquire(0));
+		assertFalse(bucket.tryAcquire(0));
+	}
+
+	@Test
+	void refillsOverTime() {
+		TokenBucket bucket = new TokenBucket(1, 2, 0);
+		assertTrue(bucket.tryAcquire(0));
+
+		// 2 tokens per second: a quarter of a second is half a token, half a second one token
+		assertFalse(bucket.tryAcquire(SECOND / 4));
+		assertTrue(bucket.tryAcquire(SECOND / 2));
+		assertFalse(bucket.tryAcquire(SECOND / 2));
+	}
+
+	@Test
+	void neverRefillsPastCapacity() {
+		TokenBucket bucket = new TokenBucket(2, 5, 0);
+		assertTrue(bucket.tryAcquire(0));
+		assertTrue(bucket.tryAcquire(0));
+
+		long later = 60 * SECOND;
+		assertTrue(bucket.tryAcquire(later));
+		assertTrue(bucket.tryAcquire(later));
+		assertFalse(bucket.tryAcquire(later));
+	}
+
+}
@@ -0,0 +1,109 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class BotServiceTests {
+
+	private static LobbyService newLobbyService(PresenceService presence) {
+		return new LobbyService(new BoardGenerator(), new LobbyBroadcaster(mock(SimpMessagingTemplate.class), 0, 1),
+				mock(DiscordNotifier.class), mock(MatchHistoryWriter.class), presence);
+	}
+
+	@Test
+	void botsMakeTheLobbyUnrankedAndStayOnline() {
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		LobbyService lobbyService = newLobbyService(presence);
+		// bots think for a minute: nothing is played during the test
+		BotService bots = new BotService(lobbyService, presence, 60_000, 60_000);
+		lobbyService.createRoom("room");
+		lobbyService.addPlayerToRoom("room", "alice");
+
+		List<String> added = bots.addBots("room", 2);
+
+		assertEquals(2, added.size());
+		assertTrue(added.stream().allMatch(bot -> bot.startsWith(BotService.BOT_PREFIX)));
+		assertTrue(lobbyService.isUnranked("room"));
+		assertTrue(presence.isOnline("room", added.getFirst()));
+		assertEquals(List.of(), bots.addBots("missing", 2));
+		bots.stop();
+	}
+
+	@Test
+	void soakLobbiesAreTornDown() throws InterruptedException {
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		LobbyService lobbyService = newLobbyService(presence);
+		BotService bots = new BotService(lobbyService, presence, 60_000, 60_000);
+		bots.register();
+
+		assertEquals(3, bots.startSoak(3, 2));
+		assertEquals(3, bots.getBotLobbyCount());
+
+		// a finished soak game is dropped on its own
+		String finished = lobbyService.getRoomIds().iterator().next();
+		GameState over = lobbyService.getGameState(finished).copy();
+		over.setWinner(over.getPlayers().getFirst().getNickname());
+		bots.onStateChanged(finished, over);
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (lobbyService.hasRoom(finished) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertFalse(lobbyService.hasRoom(finished));
+
+		assertEquals(2, bots.stopSoak());
+		assertTrue(lobbyService.getRoomIds().isEmpty());
+		assertEquals(0, bots.getBotLobbyCount());
+		assertEquals(0, bots.getSoakLobbyCount());
+		bots.stop();
+	}
+
+	@Test
+	void botLobbiesAreLeftOutOfTheSnapshot() throws IOException {
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		LobbyService lobbyService = newLobbyService(presence);
+		BotService bots = new BotService(lobbyService, presence, 60_000, 60_000);
+		lobbyService.createRoom("players");
+		lobbyService.addPlayerToRoom("players", "alice");
+		lobbyService.createRoom("bots");
+		lobbyService.addPlayerToRoom("bots", "bob");
+		bots.addBots("bots", 1);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			assertEquals(1, LobbySnapshotCodec.write(lobbyService, out));
+		}
+		LobbyService restored = newLobbyService(presence);
+		LobbySnapshotCodec.read(restored, new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertTrue(restored.hasRoom("players"));
+		assertFalse(restored.hasRoom("bots"));
+		bots.stop();
+	}
+
+	@Test
+	void plausibleScoresAreNeverNegative() {
+		SplittableRandom random = new SplittableRandom(42);
+		for (String miniGame : List.of("ClickerGame", "rainingGame", "mini1", "StarGame", "other")) {
+			for (int i = 0; i < 1_000; i++) {
+				int score = BotService.plausibleScore(miniGame, random);
+				assertTrue(score >= 0, miniGame + " scored " + score);
+			}
+		}
+		assertTrue(BotService.plausibleScore("StarGame", random) <= 15);
+	}
+
+}
@@ -0,0 +1,57 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ChatMessageDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ChatServiceTests {
+
+	@Test
+	void sendsABurstAsOneFrame() {
+		SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+		ChatService chat = new ChatService(messaging, 100);
+
+		chat.post("room", "alice", "hello");
+		chat.post("room", "bob", "  hi  ");
+		chat.post("room", "alice", "gl hf");
+		assertTrue(chat.history("room").isEmpty()); // not sent yet
+		chat.tick();
+
+		verify(messaging, times(1)).convertAndSend(eq("/topic/lobby/room/chat"), any(Object.class));
+		List<ChatMessageDTO> history = chat.history("room");
+		assertEquals(List.of("hello", "hi", "gl hf"), history.stream().map(ChatMessageDTO::text).toList());
+	}
+
+	@Test
+	void boundsWhatALobbyKeeps() {
+		ChatService chat = new ChatService(mock(SimpMessagingTemplate.class), 100);
+
+		for (int i = 0; i < ChatService.HISTORY_CAPACITY; i++) {
+			assertTrue(chat.post("room", "alice", "x".repeat(ChatService.MAX_MESSAGE_LENGTH * 2)));
+		}
+		assertFalse(chat.post("room", "alice", "one too many before the tick"));
+		assertEquals(1, chat.getDroppedCount());
+		chat.tick();
+
+		for (int i = 0; i < 10; i++) {
+			chat.post("room", "bob", "late " + i);
+		}
+		chat.tick();
+		List<ChatMessageDTO> history = chat.history("room");
+		assertEquals(ChatService.HISTORY_CAPACITY, history.size());
+		assertEquals("late 9", history.getLast().text());
+		assertEquals(ChatService.MAX_MESSAGE_LENGTH, history.getFirst().text().length());
+	}
+
+}
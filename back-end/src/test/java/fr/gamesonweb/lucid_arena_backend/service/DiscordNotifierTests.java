@@ -0,0 +1,52 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DiscordNotifierTests {
+
+	@Test
+	void postsWithoutWaitingForDiscord() throws InterruptedException {
+		RestTemplate restTemplate = mock(RestTemplate.class);
+		CountDownLatch discordAnswers = new CountDownLatch(1);
+		when(restTemplate.postForEntity(any(String.class), any(), eq(String.class))).thenAnswer(invocation -> {
+			discordAnswers.await(5, TimeUnit.SECONDS);
+			return null;
+		});
+		DiscordNotifier notifier = new DiscordNotifier(restTemplate, "https://discord.invalid/webhook");
+		notifier.start();
+
+		long before = System.nanoTime();
+		notifier.notifyWin("alice", 12);
+		assertTrue(System.nanoTime() - before < TimeUnit.SECONDS.toNanos(1), "notifyWin waited for the post");
+
+		verify(restTemplate, timeout(5_000)).postForEntity(eq("https://discord.invalid/webhook"), any(), eq(String.class));
+		discordAnswers.countDown();
+		notifier.stop();
+	}
+
+	@Test
+	void sendsNothingWithoutAWebhook() throws InterruptedException {
+		RestTemplate restTemplate = mock(RestTemplate.class);
+		DiscordNotifier notifier = new DiscordNotifier(restTemplate, "");
+		notifier.start();
+
+		notifier.notifyWin("alice", 12);
+		notifier.stop();
+
+		verifyNoInteractions(restTemplate);
+	}
+
+}
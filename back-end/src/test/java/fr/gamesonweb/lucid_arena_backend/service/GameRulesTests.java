@@ -0,0 +1,107 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameRulesTests {
+
+	private static GameState state(List<String> board, int players) {
+		GameState state = new GameState();
+		state.setPlayers(Collections.nCopies(players, new PlayerProfile("p")));
+		state.setPositions(new int[players]);
+		state.setScores(new int[players]);
+		state.setBoardTypes(board);
+		return state;
+	}
+
+	@Test
+	void rollMovesTheCurrentPlayerAndAppliesTheTile() {
+		GameState state = state(Collections.nCopies(LobbyService.TILE_COUNT, "bonus"), 2);
+		state.setCurrentPlayer(1);
+		SplittableRandom random = new SplittableRandom(7);
+		int dice = new SplittableRandom(7).nextInt(6) + 1;
+
+		assertEquals("", GameRules.roll(state, random));
+		assertEquals(String.valueOf(dice), state.getLastDiceRoll());
+		assertEquals(dice, state.getPositions()[1]);
+		assertEquals(0, state.getPositions()[0]);
+		assertEquals(1, state.getScores()[1]);
+
+		state.setBoardTypes(Collections.nCopies(LobbyService.TILE_COUNT, "malus"));
+		GameRules.roll(state, random);
+		assertEquals(0, state.getScores()[1]);
+	}
+
+	@Test
+	void rollWrapsAroundTheBoardAndNamesTheMiniGame() {
+		GameState state = state(Collections.nCopies(3, "solo"), 1);
+		SplittableRandom random = new SplittableRandom(11);
+		for (int i = 0; i < 50; i++) {
+			int before = state.getPositions()[0];
+			String miniGame = GameRules.roll(state, random);
+			int dice = Integer.parseInt(state.getLastDiceRoll());
+
+			assertTrue(dice >= 1 && dice <= 6, state.getLastDiceRoll());
+			assertEquals((before + dice) % 3, state.getPositions()[0]);
+			assertTrue(GameRules.SOLO_GAMES.contains(miniGame), miniGame);
+		}
+		state.setBoardTypes(Collections.nCopies(3, "multi"));
+		assertTrue(GameRules.MULTI_GAMES.contains(GameRules.roll(state, random)));
+		state.setBoardTypes(Collections.nCopies(3, "lava"));
+		assertThrows(IllegalStateException.class, () -> GameRules.roll(state, random));
+	}
+
+	@Test
+	void soloWinNeedsTheTarget() {
+		assertTrue(GameRules.isSolo("ClickerGame"));
+		assertFalse(GameRules.isSolo("StarGame"));
+		assertFalse(GameRules.isSoloWin("ClickerGame", GameRules.CLICKER_TARGET - 1));
+		assertTrue(GameRules.isSoloWin("ClickerGame", GameRules.CLICKER_TARGET));
+		assertFalse(GameRules.isSoloWin("rainingGame", GameRules.RAINING_TARGET - 1));
+		assertTrue(GameRules.isSoloWin("rainingGame", GameRules.RAINING_TARGET));
+		assertThrows(IllegalArgumentException.class, () -> GameRules.isSoloWin("StarGame", 100));
+	}
+
+	@Test
+	void multiWinnerTakesTheHighestScoreAndTheFirstOnATie() {
+		Map<String, Integer> scores = new LinkedHashMap<>();
+		assertNull(GameRules.multiWinner(scores));
+
+		scores.put("alice", 3);
+		scores.put("bob", 7);
+		scores.put("carol", 7);
+		scores.put("dave", -1);
+		assertEquals(Map.entry("bob", 7), GameRules.multiWinner(scores));
+	}
+
+	@Test
+	void turnsGoRoundAndTheFirstPlayerAtFiveWins() {
+		GameState state = state(List.of("bonus"), 3);
+		GameRules.advanceTurn(state);
+		GameRules.advanceTurn(state);
+		assertEquals(2, state.getCurrentPlayer());
+		GameRules.advanceTurn(state);
+		assertEquals(0, state.getCurrentPlayer());
+
+		assertEquals(-1, GameRules.winnerIndex(state));
+		state.getScores()[2] = GameRules.WINNING_SCORE - 1;
+		GameRules.awardMiniGame(state, 2);
+		assertEquals(GameRules.WINNING_SCORE, state.getScores()[2]);
+		state.getScores()[1] = GameRules.WINNING_SCORE + 1;
+		assertEquals(1, GameRules.winnerIndex(state));
+	}
+
+}
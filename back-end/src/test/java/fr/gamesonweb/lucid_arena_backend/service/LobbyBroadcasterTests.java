@@ -0,0 +1,96 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.MiniGameInstructionDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.ReplayedMessageDTO;
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LobbyBroadcasterTests {
+
+	@Test
+	void coalescesStatesWithinATick() throws InterruptedException {
+		SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+		// tick long enough that nothing is flushed before stop()
+		LobbyBroadcaster broadcaster = new LobbyBroadcaster(messaging, 60_000, 2);
+		broadcaster.start();
+
+		for (int i = 0; i < 5; i++) {
+			GameState state = new GameState();
+			state.setLastDiceRoll(String.valueOf(i));
+			broadcaster.publish("room", "/topic/game/room", state);
+		}
+		broadcaster.publish("room", "/topic/game/room/minigame/instruction",
+				new MiniGameInstructionDTO(null, "mini1"));
+		broadcaster.stop();
+
+		verify(messaging, times(1)).convertAndSend(eq("/topic/game/room"), any(GameState.class), anyMap());
+		verify(messaging, times(1)).convertAndSend(eq("/topic/game/room/minigame/instruction"),
+				any(MiniGameInstructionDTO.class), eq(Map.<String, Object>of(LobbyBroadcaster.SEQ_HEADER, 2L)));
+		assertEquals("4", broadcaster.latestState("room").getLastDiceRoll());
+		assertEquals(2, broadcaster.getSentFrameCount());
+		assertEquals(4, broadcaster.getCoalescedFrameCount());
+	}
+
+	@Test
+	void keepsAnInstructionBeforeTheStateQueuedAfterIt() throws InterruptedException {
+		SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+		LobbyBroadcaster broadcaster = new LobbyBroadcaster(messaging, 60_000, 2);
+		broadcaster.start();
+
+		GameState before = new GameState();
+		before.setLastDiceRoll("1");
+		GameState after = new GameState();
+		after.setLastDiceRoll("2");
+		broadcaster.publish("room", "/topic/game/room", before);
+		broadcaster.publish("room", "/topic/game/room/minigame/instruction",
+				new MiniGameInstructionDTO(null, "mini1"));
+		broadcaster.publish("room", "/topic/game/room", after);
+		broadcaster.stop();
+
+		InOrder order = inOrder(messaging);
+		order.verify(messaging).convertAndSend(eq("/topic/game/room/minigame/instruction"),
+				any(MiniGameInstructionDTO.class), eq(Map.<String, Object>of(LobbyBroadcaster.SEQ_HEADER, 1L)));
+		order.verify(messaging).convertAndSend(eq("/topic/game/room"), eq(after),
+				eq(Map.<String, Object>of(LobbyBroadcaster.SEQ_HEADER, 2L)));
+		verify(messaging, times(1)).convertAndSend(eq("/topic/game/room"), any(GameState.class), anyMap());
+
+		// a resume replays the same order
+		List<ReplayedMessageDTO> missed = broadcaster.resume("room", 0, () -> null).missed();
+		assertEquals(2, missed.size());
+		assertInstanceOf(MiniGameInstructionDTO.class, missed.get(0).payload());
+		assertEquals(after, missed.get(1).payload());
+	}
+
+	@Test
+	void sendsWhenStageEventsAreRecordedAndThePostProcessorNeverRuns() {
+		// the mock never calls the post processor that starts the "send" stage
+		SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+		LobbyBroadcaster broadcaster = new LobbyBroadcaster(messaging, 0, 1);
+
+		try (Recording recording = new Recording()) {
+			recording.enable("fr.gamesonweb.lucid.GameStage");
+			recording.start();
+			broadcaster.publish("room", "/topic/game/room", new GameState());
+		}
+
+		verify(messaging).convertAndSend(eq("/topic/game/room"), any(GameState.class), anyMap(), any());
+		assertEquals(1, broadcaster.getSentFrameCount());
+	}
+
+}
@@ -0,0 +1,59 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyCountsDTO;
+import fr.gamesonweb.lucid_arena_backend.dto.LobbyPageDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class LobbyInspectorTests {
+
+	@Test
+	void pagesThroughFilteredLobbiesWithoutTouchingPlayers() {
+		SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+		LobbyBroadcaster broadcaster = new LobbyBroadcaster(messaging, 0, 1);
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		LobbyService lobbyService = new LobbyService(new BoardGenerator(), broadcaster, mock(DiscordNotifier.class),
+				mock(MatchHistoryWriter.class), presence);
+		LobbyInspector inspector = new LobbyInspector(lobbyService, broadcaster, presence);
+
+		int lobbies = 1000;
+		for (int i = 0; i < lobbies; i++) {
+			String lobbyId = String.format("lobby%04d", i);
+			lobbyService.createRoom(lobbyId);
+			lobbyService.addPlayerToRoom(lobbyId, "alice");
+			lobbyService.addPlayerToRoom(lobbyId, "bob" + i);
+			if (i % 2 == 0) {
+				lobbyService.getGameState(lobbyId); // started
+			}
+		}
+
+		List<String> seen = new ArrayList<>();
+		String after = null;
+		do {
+			LobbyPageDTO page = inspector.list(LobbyInspector.PLAYING, "alice", 2, after, 64);
+			page.lobbies().forEach(lobby -> seen.add(lobby.lobbyId()));
+			after = page.next();
+		} while (after != null);
+
+		assertEquals(lobbies / 2, seen.size());
+		assertEquals(seen.stream().sorted().toList(), seen);
+		assertEquals("lobby0000", seen.getFirst());
+		assertEquals(1, inspector.list(null, "bob7", 0, null, 10).lobbies().size());
+		assertNull(inspector.detail("missing"));
+
+		LobbyCountsDTO counts = inspector.counts();
+		assertEquals(lobbies, counts.lobbies());
+		assertEquals(lobbies / 2, counts.playing());
+		assertEquals(lobbies / 2, counts.waiting());
+		verifyNoInteractions(messaging);
+	}
+
+}
@@ -0,0 +1,85 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Time to snapshot and restore 10k started lobbies, the shutdown and startup cost of a redeploy.
+ * Not part of the default build: {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class LobbySnapshotBenchmarkTests {
+	private static final int LOBBIES = 10_000;
+	private static final int RUNS = 5;
+	// well inside the 30 s stop_grace_period of docker-compose, with room for the broker and JPA shutdown
+	private static final long BUDGET_MS = 2_000;
+
+	private static LobbyService newLobbyService() {
+		return new LobbyService(new BoardGenerator(), new LobbyBroadcaster(mock(SimpMessagingTemplate.class), 0, 1),
+				mock(DiscordNotifier.class), mock(MatchHistoryWriter.class), new PresenceService(event -> {}, 0));
+	}
+
+	@Test
+	void snapshotAndRestoreTenThousandLobbies() throws IOException {
+		LobbyService source = newLobbyService();
+		for (int i = 0; i < LOBBIES; i++) {
+			String roomId = "room" + i;
+			source.createRoom(roomId);
+			for (int p = 0; p < 4; p++) {
+				source.addPlayerToRoom(roomId, "player" + i + "-" + p);
+			}
+			GameState state = source.getGameState(roomId);
+			state.getPositions()[1] = i % LobbyService.TILE_COUNT;
+			state.getScores()[2] = i % 5;
+			source.addMiniGameResult(roomId, "player" + i + "-0", "mini1", i);
+			source.broadcastState(roomId, state);
+		}
+
+		// the first runs warm up the JIT, the best run is reported
+		long bestSnapshotNanos = Long.MAX_VALUE;
+		long bestRestoreNanos = Long.MAX_VALUE;
+		byte[] snapshot = null;
+		LobbyService target = null;
+		for (int run = 0; run < RUNS; run++) {
+			long start = System.nanoTime();
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(bytes)) {
+				assertEquals(LOBBIES, LobbySnapshotCodec.write(source, out));
+			}
+			bestSnapshotNanos = Math.min(bestSnapshotNanos, System.nanoTime() - start);
+			snapshot = bytes.toByteArray();
+
+			target = newLobbyService();
+			start = System.nanoTime();
+			int restored = LobbySnapshotCodec.read(target, new DataInputStream(new ByteArrayInputStream(snapshot)));
+			bestRestoreNanos = Math.min(bestRestoreNanos, System.nanoTime() - start);
+			assertEquals(LOBBIES, restored);
+		}
+
+		long snapshotMs = bestSnapshotNanos / 1_000_000;
+		long restoreMs = bestRestoreNanos / 1_000_000;
+		System.out.printf("%d lobbies: %d KiB, snapshot %d ms, restore %d ms (best of %d)%n",
+				LOBBIES, snapshot.length / 1024, snapshotMs, restoreMs, RUNS);
+		GameState before = source.getGameState("room42");
+		GameState after = target.peekGameState("room42");
+		assertArrayEquals(before.getPositions(), after.getPositions());
+		assertArrayEquals(before.getScores(), after.getScores());
+		assertEquals(source.peekLastSeq("room42"), target.peekLastSeq("room42"));
+		assertTrue(snapshotMs < BUDGET_MS, "snapshot took " + snapshotMs + " ms");
+		assertTrue(restoreMs < BUDGET_MS, "restore took " + restoreMs + " ms");
+	}
+
+}
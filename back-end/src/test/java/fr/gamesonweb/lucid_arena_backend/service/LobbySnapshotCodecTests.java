@@ -0,0 +1,73 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ResumeDTO;
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LobbySnapshotCodecTests {
+
+	private static LobbyService newLobbyService() {
+		return new LobbyService(new BoardGenerator(), new LobbyBroadcaster(mock(SimpMessagingTemplate.class), 0, 1),
+				mock(DiscordNotifier.class), mock(MatchHistoryWriter.class), new PresenceService(event -> {}, 0));
+	}
+
+	@Test
+	void snapshotAndRestoreLobbies() throws IOException {
+		LobbyService source = newLobbyService();
+		source.createRoom("waiting");
+		source.addPlayerToRoom("waiting", "alice");
+		source.createRoom("playing");
+		for (int p = 0; p < 4; p++) {
+			source.addPlayerToRoom("playing", "player" + p);
+		}
+		GameState state = source.getGameState("playing");
+		state.getPositions()[1] = 12;
+		state.getScores()[2] = 3;
+		source.addMiniGameResult("playing", "player0", "mini1", 42);
+		source.startMiniGame("playing", "mini1");
+		source.broadcastState("playing", state);
+		source.broadcastState("playing", state);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			LobbySnapshotCodec.write(source, out);
+		}
+		LobbyService target = newLobbyService();
+		int restored = LobbySnapshotCodec.read(target,
+				new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertEquals(2, restored);
+		assertNull(target.peekGameState("waiting"));
+		assertEquals(source.getPlayers("waiting"), target.getPlayers("waiting"));
+		GameState after = target.peekGameState("playing");
+		assertArrayEquals(state.getPositions(), after.getPositions());
+		assertArrayEquals(state.getScores(), after.getScores());
+		assertEquals(state.getBoardTypes(), after.getBoardTypes());
+		assertEquals(source.getPlayers("playing"), target.getPlayers("playing"));
+		assertEquals(42, target.peekMiniGameResults("playing").get("mini1").getPlayerScores().get("player0"));
+		assertEquals("mini1", target.peekPendingMiniGame("playing"));
+		assertNotNull(target.peekMatchTracker("playing"));
+
+		// the broadcast sequence carries on, so clients resume against the numbers they know
+		assertEquals(2, target.peekLastSeq("playing"));
+		ResumeDTO upToDate = target.resume("playing", 2);
+		assertNull(upToDate.snapshot());
+		assertTrue(upToDate.missed().isEmpty());
+		assertNotNull(target.resume("playing", 1).snapshot());
+	}
+
+}
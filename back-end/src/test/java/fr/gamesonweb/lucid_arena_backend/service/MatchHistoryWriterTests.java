@@ -0,0 +1,182 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.MatchPlayerResult;
+import fr.gamesonweb.lucid_arena_backend.entity.MatchRecord;
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerStats;
+import fr.gamesonweb.lucid_arena_backend.repository.MatchRecordRepository;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MatchHistoryWriterTests {
+
+	private final MatchRecordRepository matchRecordRepository = mock(MatchRecordRepository.class);
+	private final PlayerStatsRepository playerStatsRepository = mock(PlayerStatsRepository.class);
+	// size of every batch handed to saveAll, in order
+	private final List<Integer> batches = new CopyOnWriteArrayList<>();
+	private final Map<String, PlayerStats> stats = new ConcurrentHashMap<>();
+	private MatchHistoryWriter writer;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(matchRecordRepository.saveAll(any())).thenAnswer(this::saveRecords);
+		when(playerStatsRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<PlayerStats> found = new ArrayList<>();
+			for (String nickname : (Iterable<String>) invocation.getArgument(0)) {
+				if (stats.containsKey(nickname)) {
+					found.add(stats.get(nickname));
+				}
+			}
+			return found;
+		});
+		when(playerStatsRepository.saveAll(any())).thenAnswer(invocation -> {
+			for (PlayerStats player : (Iterable<PlayerStats>) invocation.getArgument(0)) {
+				stats.put(player.getNickname(), player);
+			}
+			return List.of();
+		});
+		when(playerStatsRepository.findAllByOrderByWinsDescNicknameAsc(any())).thenAnswer(invocation -> {
+			Limit limit = invocation.getArgument(0);
+			return stats.values().stream()
+					.sorted(Comparator.comparingLong(PlayerStats::getWins).reversed()
+							.thenComparing(PlayerStats::getNickname))
+					.limit(limit.max())
+					.toList();
+		});
+		writer = new MatchHistoryWriter(matchRecordRepository, playerStatsRepository,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)));
+	}
+
+	private List<MatchRecord> saveRecords(InvocationOnMock invocation) {
+		Collection<MatchRecord> records = invocation.getArgument(0);
+		batches.add(records.size());
+		return new ArrayList<>(records);
+	}
+
+	private static MatchRecord match(String winner, MatchPlayerResult... players) {
+		MatchRecord record = new MatchRecord();
+		record.setLobbyId("room");
+		record.setWinnerNickname(winner);
+		record.setPlayers(new ArrayList<>(List.of(players)));
+		return record;
+	}
+
+	@Test
+	void writesQueuedMatchesAsOneBatch() throws InterruptedException {
+		writer.submit(match("alice", new MatchPlayerResult("alice", 10, 3, 2), new MatchPlayerResult("bob", 4, 3, 1)));
+		writer.submit(match("bob", new MatchPlayerResult("alice", 5, 2, 0), new MatchPlayerResult("bob", 8, 2, 2)));
+		writer.submit(match("alice", new MatchPlayerResult("alice", 7, 1, 1), new MatchPlayerResult("carol", 2, 1, 0)));
+		writer.start();
+
+		verify(playerStatsRepository, timeout(5_000)).saveAll(any());
+		writer.stop();
+
+		assertEquals(List.of(3), batches);
+		PlayerStats alice = stats.get("alice");
+		assertEquals(3, alice.getGamesPlayed());
+		assertEquals(2, alice.getWins());
+		assertEquals(22, alice.getTotalScore());
+		assertEquals(6, alice.getMiniGamesPlayed());
+		assertEquals(3, alice.getMiniGamesWon());
+		assertEquals(0.5, alice.getMiniGameWinRate());
+		assertEquals(2, stats.get("bob").getGamesPlayed());
+		assertEquals(1, stats.get("bob").getWins());
+		assertEquals(0, stats.get("carol").getWins());
+	}
+
+	@Test
+	void drainsTheQueueOnShutdown() throws InterruptedException {
+		writer.start();
+		int submitted = 450;
+		for (int i = 0; i < submitted; i++) {
+			writer.submit(match("alice", new MatchPlayerResult("alice", 1, 0, 0), new MatchPlayerResult("bob", 0, 0, 0)));
+		}
+		writer.stop();
+
+		// whatever the worker did not take is written by stop, still in batches
+		assertEquals(submitted, batches.stream().mapToInt(Integer::intValue).sum());
+		assertTrue(batches.stream().allMatch(size -> size <= 200), batches.toString());
+		assertEquals(submitted, stats.get("alice").getWins());
+		assertEquals(submitted, stats.get("bob").getGamesPlayed());
+	}
+
+	@Test
+	void retriesABatchTheDatabaseRejected() throws InterruptedException {
+		doThrow(new DataAccessResourceFailureException("database down"))
+				.doAnswer(this::saveRecords)
+				.when(matchRecordRepository).saveAll(any());
+		writer.submit(match("alice", new MatchPlayerResult("alice", 10, 1, 1), new MatchPlayerResult("bob", 4, 1, 0)));
+		writer.start();
+
+		verify(playerStatsRepository, timeout(5_000)).saveAll(any());
+		writer.stop();
+
+		assertEquals(List.of(1), batches);
+		assertEquals(1, stats.get("alice").getGamesPlayed());
+		assertEquals(1, stats.get("alice").getWins());
+		assertEquals(1, stats.get("bob").getGamesPlayed());
+	}
+
+	@Test
+	void writesTheBatchWaitingForARetryOnShutdown() throws InterruptedException {
+		doThrow(new DataAccessResourceFailureException("database down"))
+				.doAnswer(this::saveRecords)
+				.when(matchRecordRepository).saveAll(any());
+		writer.start();
+		writer.submit(match("alice", new MatchPlayerResult("alice", 10, 1, 1), new MatchPlayerResult("bob", 4, 1, 0)));
+		verify(matchRecordRepository, timeout(5_000)).saveAll(any());
+
+		// the worker is waiting before its retry
+		writer.stop();
+
+		assertEquals(List.of(1), batches);
+		assertEquals(1, stats.get("alice").getGamesPlayed());
+	}
+
+	@Test
+	void servesTheLeaderboardFromTheCache() throws InterruptedException {
+		writer.start();
+		verify(playerStatsRepository).findAllByOrderByWinsDescNicknameAsc(Limit.of(100));
+		assertTrue(writer.getLeaderboard(10).isEmpty());
+
+		writer.submit(match("bob", new MatchPlayerResult("alice", 1, 0, 0), new MatchPlayerResult("bob", 2, 0, 0)));
+		// refreshed once the batch is written
+		verify(playerStatsRepository, timeout(5_000).times(2)).findAllByOrderByWinsDescNicknameAsc(Limit.of(100));
+		writer.stop();
+
+		assertEquals(List.of("bob", "alice"),
+				writer.getLeaderboard(10).stream().map(PlayerStats::getNickname).toList());
+		assertEquals(List.of("bob"), writer.getLeaderboard(1).stream().map(PlayerStats::getNickname).toList());
+		verify(playerStatsRepository, never()).findAllByOrderByWinsDescNicknameAsc(Limit.of(10));
+
+		// past the cached top 100 the repository is asked
+		writer.getLeaderboard(500);
+		verify(playerStatsRepository, times(1)).findAllByOrderByWinsDescNicknameAsc(Limit.of(500));
+	}
+
+}
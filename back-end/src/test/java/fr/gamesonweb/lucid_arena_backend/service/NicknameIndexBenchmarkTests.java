@@ -0,0 +1,61 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Availability checks and prefix searches over a million nicknames, the lookups that replaced a query each.
+ * Not part of the default build: {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class NicknameIndexBenchmarkTests {
+	private static final int NICKNAMES = 1_000_000;
+	private static final int LOOKUPS = 100_000;
+	private static final int RUNS = 5;
+	// about 1 µs measured on one core: scanning the million names would take milliseconds
+	private static final long BUDGET_NS = 20_000;
+
+	@Test
+	void answersInMicrosecondsAtAMillionNicknames() {
+		NicknameIndex index = new NicknameIndex(mock(PlayerProfileRepository.class), mock(TransactionTemplate.class));
+		for (int i = 0; i < NICKNAMES; i++) {
+			index.rename(null, "player" + i);
+		}
+		assertEquals(NICKNAMES, index.size());
+
+		// the first runs warm up the JIT, the best run is reported
+		long bestContainsNanos = Long.MAX_VALUE;
+		long bestSearchNanos = Long.MAX_VALUE;
+		for (int run = 0; run < RUNS; run++) {
+			int hits = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				if (index.contains("player" + (i * 7 % NICKNAMES))) {
+					hits++;
+				}
+			}
+			bestContainsNanos = Math.min(bestContainsNanos, (System.nanoTime() - start) / LOOKUPS);
+			assertEquals(LOOKUPS, hits);
+
+			int found = 0;
+			start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				found += index.search("player" + (i * 7 % NICKNAMES), 10).size();
+			}
+			bestSearchNanos = Math.min(bestSearchNanos, (System.nanoTime() - start) / LOOKUPS);
+			assertTrue(found >= LOOKUPS);
+		}
+
+		System.out.printf("%d nicknames: contains %d ns, prefix search %d ns (best of %d)%n",
+				NICKNAMES, bestContainsNanos, bestSearchNanos, RUNS);
+		assertTrue(bestContainsNanos < BUDGET_NS, "contains took " + bestContainsNanos + " ns");
+		assertTrue(bestSearchNanos < BUDGET_NS, "search took " + bestSearchNanos + " ns");
+	}
+
+}
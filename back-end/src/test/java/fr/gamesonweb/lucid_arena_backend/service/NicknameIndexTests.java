@@ -0,0 +1,34 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class NicknameIndexTests {
+
+	@Test
+	void searchesByPrefixIgnoringCase() {
+		NicknameIndex index = new NicknameIndex(mock(PlayerProfileRepository.class), mock(TransactionTemplate.class));
+		for (String nickname : List.of("Alice", "alice", "Alicia", "albert", "Bob", "al")) {
+			index.rename(null, nickname);
+		}
+
+		assertEquals(List.of("al", "albert", "Alice", "alice", "Alicia"), index.search("AL", 10));
+		assertEquals(List.of("Alice", "alice"), index.search("alice", 10));
+		assertEquals(List.of("al", "albert"), index.search("al", 2));
+		assertTrue(index.search("carol", 10).isEmpty());
+
+		index.rename("Bob", "Bobby");
+		assertFalse(index.contains("Bob"));
+		assertTrue(index.contains("Bobby"));
+		assertFalse(index.contains("ALICE"));
+	}
+
+}
@@ -0,0 +1,169 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class PresenceServiceTests {
+
+	@Test
+	void staysOnlineUntilTheLastSessionCloses() {
+		List<Object> events = new CopyOnWriteArrayList<>();
+		PresenceService presence = new PresenceService(events::add, 0);
+
+		join(presence, "lobby-socket", "alice", "/topic/lobby/room");
+		join(presence, "game-socket", "alice", "/topic/game/room");
+		leave(presence, "lobby-socket");
+
+		assertTrue(presence.isOnline("room", "alice"));
+		assertTrue(events.isEmpty());
+
+		leave(presence, "game-socket");
+		leave(presence, "game-socket"); // repeated disconnect event
+
+		assertTrue(presence.isOffline("room", "alice"));
+		assertEquals(List.of(new PlayerOfflineEvent("room", "alice")), events);
+	}
+
+	@Test
+	void reconnectWithinTheGracePeriodIsNotADeparture() throws InterruptedException {
+		List<Object> events = new CopyOnWriteArrayList<>();
+		PresenceService presence = new PresenceService(events::add, 200);
+		presence.start();
+
+		join(presence, "s1", "alice", "/topic/game/room");
+		leave(presence, "s1");
+		assertTrue(presence.isOnline("room", "alice"));
+		join(presence, "s2", "alice", "/topic/game/room");
+		Thread.sleep(400);
+
+		assertTrue(presence.isOnline("room", "alice"));
+		assertTrue(events.isEmpty());
+		presence.stop();
+	}
+
+	@Test
+	void departureIsPublishedOnceTheGracePeriodEnds() throws InterruptedException {
+		List<Object> events = new CopyOnWriteArrayList<>();
+		PresenceService presence = new PresenceService(events::add, 100);
+		presence.start();
+
+		join(presence, "s1", "alice", "/topic/game/room");
+		leave(presence, "s1");
+		assertTrue(events.isEmpty());
+
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (events.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(List.of(new PlayerOfflineEvent("room", "alice")), events);
+		assertTrue(presence.isOffline("room", "alice"));
+		presence.stop();
+	}
+
+	@Test
+	void departedPlayerTurnIsPassed() {
+		LobbyService[] lobbyService = new LobbyService[1];
+		PresenceService presence = new PresenceService(
+				event -> lobbyService[0].onPlayerOffline((PlayerOfflineEvent) event), 0);
+		lobbyService[0] = new LobbyService(new BoardGenerator(),
+				new LobbyBroadcaster(mock(SimpMessagingTemplate.class), 0, 1), mock(DiscordNotifier.class),
+				mock(MatchHistoryWriter.class), presence);
+		lobbyService[0].createRoom("room");
+		lobbyService[0].addPlayerToRoom("room", "alice");
+		lobbyService[0].addPlayerToRoom("room", "bob");
+		GameState state = lobbyService[0].startGame("room");
+		join(presence, "alice-socket", "alice", "/topic/game/room");
+		join(presence, "bob-socket", "bob", "/topic/game/room");
+		String current = state.getPlayers().get(state.getCurrentPlayer()).getNickname();
+
+		leave(presence, current + "-socket");
+
+		GameState after = lobbyService[0].getGameState("room");
+		assertNotEquals(current, after.getPlayers().get(after.getCurrentPlayer()).getNickname());
+		assertFalse(presence.isOnline("room", current));
+	}
+
+	@Test
+	void aReusedLobbyIdStartsWithNoOneOffline() throws InterruptedException {
+		List<Object> events = new CopyOnWriteArrayList<>();
+		PresenceService presence = new PresenceService(events::add, 100);
+		presence.start();
+		LobbyService lobbyService = new LobbyService(new BoardGenerator(),
+				new LobbyBroadcaster(mock(SimpMessagingTemplate.class), 0, 1), mock(DiscordNotifier.class),
+				mock(MatchHistoryWriter.class), presence);
+		lobbyService.createRoom("room");
+		lobbyService.addPlayerToRoom("room", "alice");
+		lobbyService.addPlayerToRoom("room", "bob");
+		join(presence, "alice-socket", "alice", "/topic/game/room");
+		join(presence, "bob-socket", "bob", "/topic/game/room");
+		leave(presence, "bob-socket"); // grace period running
+
+		lobbyService.removeLobby("room");
+		lobbyService.createRoom("room");
+		lobbyService.addPlayerToRoom("room", "carol");
+		lobbyService.addPlayerToRoom("room", "dave");
+		GameState state = lobbyService.startGame("room");
+
+		// no socket yet, but not offline: their turns are played
+		assertFalse(presence.isOffline("room", "carol"));
+		assertFalse(presence.isOffline("room", "dave"));
+		assertEquals(0, presence.onlineCount("room"));
+		String current = state.getPlayers().get(state.getCurrentPlayer()).getNickname();
+		lobbyService.incrementCurrentPlayerOrReset("room", state);
+		assertNotEquals(current, state.getPlayers().get(state.getCurrentPlayer()).getNickname());
+
+		// the old lobby's socket closing does not touch the new one, its grace timer was cancelled
+		join(presence, "carol-socket", "carol", "/topic/game/room");
+		leave(presence, "alice-socket");
+		Thread.sleep(300);
+		assertTrue(presence.isOnline("room", "carol"));
+		assertTrue(events.isEmpty());
+		presence.stop();
+	}
+
+	private static void join(PresenceService presence, String sessionId, String nickname, String destination) {
+		SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+		connect.setSessionId(sessionId);
+		connect.setSessionAttributes(new HashMap<>(Map.of("nickname", nickname)));
+		SimpMessageHeaderAccessor ack = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+		ack.setSessionId(sessionId);
+		ack.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER, message(connect));
+		presence.onConnected(new SessionConnectedEvent(presence, message(ack)));
+
+		SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		subscribe.setSessionId(sessionId);
+		subscribe.setDestination(destination);
+		presence.onSubscribe(new SessionSubscribeEvent(presence, message(subscribe)));
+	}
+
+	private static void leave(PresenceService presence, String sessionId) {
+		SimpMessageHeaderAccessor disconnect = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+		disconnect.setSessionId(sessionId);
+		presence.onDisconnect(new SessionDisconnectEvent(presence, message(disconnect), sessionId, CloseStatus.NORMAL));
+	}
+
+	private static Message<byte[]> message(SimpMessageHeaderAccessor accessor) {
+		return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+	}
+
+}
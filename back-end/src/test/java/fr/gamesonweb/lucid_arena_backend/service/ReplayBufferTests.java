@@ -0,0 +1,40 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.ReplayedMessageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayBufferTests {
+
+	@Test
+	void replaysExactlyTheMissedMessages() {
+		ReplayBuffer buffer = new ReplayBuffer(8);
+		for (int i = 0; i < 5; i++) {
+			buffer.append("/topic/game/room", "message" + i);
+		}
+
+		List<ReplayedMessageDTO> missed = buffer.since(2);
+
+		assertEquals(List.of(3L, 4L, 5L), missed.stream().map(ReplayedMessageDTO::seq).toList());
+		assertTrue(buffer.since(5).isEmpty());
+	}
+
+	@Test
+	void asksForSnapshotWhenGapIsTooLarge() {
+		ReplayBuffer buffer = new ReplayBuffer(4);
+		for (int i = 0; i < 10; i++) {
+			buffer.append("/topic/game/room", "message" + i);
+		}
+
+		assertNull(buffer.since(5)); // seq 6 was overwritten
+		assertEquals(4, buffer.since(6).size());
+		assertNull(buffer.since(-1));
+		assertNull(buffer.since(42)); // client ahead of us, e.g. after a restart
+	}
+
+}
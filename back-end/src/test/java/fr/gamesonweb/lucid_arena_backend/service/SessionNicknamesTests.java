@@ -0,0 +1,104 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.entity.PlayerProfile;
+import fr.gamesonweb.lucid_arena_backend.repository.PlayerProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionNicknamesTests {
+
+	private final PlayerProfileRepository repository = mock(PlayerProfileRepository.class);
+	private final SessionNicknames sessionNicknames = new SessionNicknames(repository);
+
+	@Test
+	void profileCreatedAfterConnectingReachesTheOpenSessions() {
+		when(repository.findById(any())).thenReturn(Optional.empty());
+		Map<String, Object> lobbySocket = connect("lobby-socket", "sub-alice");
+		Map<String, Object> gameSocket = connect("game-socket", "sub-alice");
+		Map<String, Object> otherUser = connect("bob-socket", "sub-bob");
+		assertNull(lobbySocket.get("nickname"));
+
+		sessionNicknames.rename("sub-alice", "alice");
+
+		assertEquals("alice", lobbySocket.get("nickname"));
+		assertEquals("alice", gameSocket.get("nickname"));
+		assertFalse(otherUser.containsKey("nickname"));
+
+		// closed sessions are forgotten
+		sessionNicknames.onDisconnect(new SessionDisconnectEvent(this, message(
+				SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT)), "lobby-socket", CloseStatus.NORMAL));
+		assertEquals(2, sessionNicknames.size());
+	}
+
+	@Test
+	void profileSavedBetweenHandshakeAndConnectIsLookedUp() {
+		PlayerProfile profile = new PlayerProfile("alice");
+		when(repository.findById("sub-alice")).thenReturn(Optional.of(profile));
+
+		assertEquals("alice", connect("socket", "sub-alice").get("nickname"));
+	}
+
+	@Test
+	void presenceCountsAPlayerWhoseProfileCameAfterConnecting() {
+		when(repository.findById(any())).thenReturn(Optional.empty());
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		Map<String, Object> attributes = new ConcurrentHashMap<>(Map.of("user", "sub-alice"));
+		SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+		connect.setSessionId("socket");
+		connect.setSessionAttributes(attributes);
+		SimpMessageHeaderAccessor ack = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+		ack.setSessionId("socket");
+		ack.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER, message(connect));
+		SessionConnectedEvent connected = new SessionConnectedEvent(this, message(ack));
+		// anonymous at CONNECT, presence does not bind the session to anyone
+		presence.onConnected(connected);
+		sessionNicknames.onConnected(connected);
+
+		sessionNicknames.rename("sub-alice", "alice");
+		SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		subscribe.setSessionId("socket");
+		subscribe.setSessionAttributes(attributes);
+		subscribe.setDestination("/topic/lobby/room");
+		presence.onSubscribe(new SessionSubscribeEvent(this, message(subscribe)));
+
+		assertTrue(presence.isOnline("room", "alice"));
+		assertEquals(List.of("bob"), presence.expireNoShows("room", List.of("alice", "bob")));
+	}
+
+	private Map<String, Object> connect(String sessionId, String user) {
+		Map<String, Object> attributes = new ConcurrentHashMap<>(Map.of("user", user));
+		SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+		connect.setSessionId(sessionId);
+		connect.setSessionAttributes(attributes);
+		SimpMessageHeaderAccessor ack = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+		ack.setSessionId(sessionId);
+		ack.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER, message(connect));
+		sessionNicknames.onConnected(new SessionConnectedEvent(this, message(ack)));
+		return attributes;
+	}
+
+	private static Message<byte[]> message(SimpMessageHeaderAccessor accessor) {
+		return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+	}
+
+}
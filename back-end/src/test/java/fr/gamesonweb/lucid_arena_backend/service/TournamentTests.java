@@ -0,0 +1,139 @@
+package fr.gamesonweb.lucid_arena_backend.service;
+
+import fr.gamesonweb.lucid_arena_backend.dto.TournamentStandingsDTO;
+import fr.gamesonweb.lucid_arena_backend.entity.GameState;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TournamentTests {
+
+	@Test
+	void spreadsTopSeedsAcrossBalancedLobbies() {
+		Tournament tournament = new Tournament("t1", 4);
+		List<String> players = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			players.add("seed" + i);
+		}
+
+		Map<String, List<String>> lobbies = tournament.seedRound(players);
+
+		assertEquals(List.of("t1-r1-1", "t1-r1-2", "t1-r1-3"), List.copyOf(lobbies.keySet()));
+		assertEquals(List.of("seed1", "seed4", "seed7", "seed10"), lobbies.get("t1-r1-1"));
+		assertEquals(List.of("seed2", "seed5", "seed8"), lobbies.get("t1-r1-2"));
+		assertEquals(List.of("seed3", "seed6", "seed9"), lobbies.get("t1-r1-3"));
+	}
+
+	@Test
+	void roundIsOverOnceEveryLobbyHasAWinner() {
+		Tournament tournament = new Tournament("t1", 2);
+		tournament.seedRound(List.of("a", "b", "c", "d"));
+
+		tournament.recordWinner("t1-r1-1", "c");
+		assertNull(tournament.roundWinners());
+
+		tournament.recordWinner("t1-r1-2", "b");
+		assertEquals(List.of("c", "b"), tournament.roundWinners());
+
+		tournament.seedRound(tournament.roundWinners());
+		assertNull(tournament.roundWinners());
+		assertEquals(2, tournament.publishStandings().rounds().size());
+	}
+
+	@Test
+	void removedMatchIsForfeited() throws InterruptedException {
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		LobbyService lobbyService = newLobbyService(presence);
+		TournamentService tournaments = newTournamentService(lobbyService, presence, 60_000);
+		String id = tournaments.create(List.of("a", "b", "c", "d"), 2);
+		awaitTrue(() -> lobbyIds(tournaments, id).size() == 2);
+		List<String> lobbies = lobbyIds(tournaments, id);
+
+		lobbyService.removeLobby(lobbies.get(0));
+		GameState over = lobbyService.getGameState(lobbies.get(1)).copy();
+		over.setWinner("b");
+		tournaments.onStateChanged(lobbies.get(1), over);
+
+		// the only winner left takes the tournament
+		awaitTrue(() -> Tournament.FINISHED.equals(tournaments.getStandings(id).status()));
+		TournamentStandingsDTO standings = tournaments.getStandings(id);
+		assertEquals("b", standings.champion());
+		assertTrue(standings.rounds().getFirst().lobbies().get(0).forfeited());
+		assertNull(standings.rounds().getFirst().lobbies().get(0).winner());
+		tournaments.stop();
+	}
+
+	@Test
+	void noShowsAreOutAfterTheDeadline() throws InterruptedException {
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		LobbyService lobbyService = newLobbyService(presence);
+		TournamentService tournaments = newTournamentService(lobbyService, presence, 500);
+		// one lobby of 3: two show up and play on; one lobby of 2: only "b" shows up and wins by walkover
+		String id = tournaments.create(List.of("a", "b", "c", "d", "e"), 3);
+		awaitTrue(() -> lobbyIds(tournaments, id).size() == 2);
+		List<String> lobbies = lobbyIds(tournaments, id);
+		List<String> firstSeats = tournaments.getStandings(id).rounds().getFirst().lobbies().get(0).players();
+		assertEquals(List.of("a", "c", "e"), firstSeats);
+		presence.attach(lobbies.get(0), "a");
+		presence.attach(lobbies.get(0), "c");
+		presence.attach(lobbies.get(1), "b");
+
+		awaitTrue(() -> !lobbyService.hasRoom(lobbies.get(1)));
+		awaitTrue(() -> presence.isOffline(lobbies.get(0), "e"));
+		assertTrue(lobbyService.hasRoom(lobbies.get(0)));
+		assertFalse(presence.isOffline(lobbies.get(0), "a"));
+		assertEquals("b", tournaments.getStandings(id).rounds().getFirst().lobbies().get(1).winner());
+		tournaments.stop();
+	}
+
+	@Test
+	void roundNobodyJoinedCancelsTheTournament() throws InterruptedException {
+		PresenceService presence = new PresenceService(event -> {}, 0);
+		LobbyService lobbyService = newLobbyService(presence);
+		TournamentService tournaments = newTournamentService(lobbyService, presence, 100);
+		String id = tournaments.create(List.of("a", "b"), 2);
+
+		awaitTrue(() -> Tournament.CANCELLED.equals(tournaments.getStandings(id).status()));
+		assertTrue(lobbyService.getRoomIds().isEmpty());
+		assertTrue(tournaments.getStandings(id).rounds().getFirst().lobbies().getFirst().forfeited());
+		tournaments.stop();
+	}
+
+	private static LobbyService newLobbyService(PresenceService presence) {
+		return new LobbyService(new BoardGenerator(), new LobbyBroadcaster(mock(SimpMessagingTemplate.class), 0, 1),
+				mock(DiscordNotifier.class), mock(MatchHistoryWriter.class), presence);
+	}
+
+	private static TournamentService newTournamentService(LobbyService lobbyService, PresenceService presence,
+														  long noShowMs) {
+		TournamentService tournaments = new TournamentService(lobbyService, mock(SimpMessagingTemplate.class),
+				presence, noShowMs);
+		tournaments.register();
+		return tournaments;
+	}
+
+	private static List<String> lobbyIds(TournamentService tournaments, String id) {
+		List<TournamentStandingsDTO.Round> rounds = tournaments.getStandings(id).rounds();
+		return rounds.isEmpty() ? List.of()
+				: rounds.getFirst().lobbies().stream().map(TournamentStandingsDTO.Lobby::lobbyId).toList();
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+}
@@ -0,0 +1,54 @@
+package fr.gamesonweb.lucid_arena_backend.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSimulatorTests {
+
+	// 20 000 games of 4 players, default score distributions of the command line
+	private static final GameSimulator.Config CONFIG = new GameSimulator.Config(20_000, 4, 85, 20, 12, 5);
+	private static final long SEED = 42;
+
+	@Test
+	void seededRunPinsTheOutcomeDistribution() {
+		GameSimulator.Stats stats = GameSimulator.simulate(CONFIG, SEED);
+
+		// seed 42 gave 0 unfinished, 19.2 rolls on average (p50 18, p90 28), a solo win rate of 65.0%
+		// and seat win rates of 27.8%, 26.1%, 24.1%, 22.0%: the bounds leave room for the sampling noise only
+		assertEquals(20_000, stats.games);
+		assertEquals(0, stats.unfinished);
+		assertTrue(stats.meanRolls() > 18.5 && stats.meanRolls() < 20, "mean rolls " + stats.meanRolls());
+		assertTrue(stats.rollsPercentile(0.5) >= 17 && stats.rollsPercentile(0.5) <= 19,
+				"p50 " + stats.rollsPercentile(0.5));
+		// targets 80 and 10 against N(85, 20) and N(12, 5): 60.8% and 69.1%, the two games equally likely
+		assertTrue(Math.abs(stats.soloWinRate() - 0.65) < 0.01, "solo win rate " + stats.soloWinRate());
+
+		double total = 0;
+		for (int seat = 0; seat < 4; seat++) {
+			total += stats.winRate(seat);
+		}
+		assertEquals(1, total, 1e-9);
+		// playing first is an advantage
+		assertTrue(stats.winRate(0) > 0.265 && stats.winRate(0) < 0.29, "seat 0 " + stats.winRate(0));
+		assertTrue(stats.winRate(3) > 0.205 && stats.winRate(3) < 0.235, "seat 3 " + stats.winRate(3));
+		assertTrue(stats.winRate(0) > stats.winRate(1) && stats.winRate(1) > stats.winRate(3));
+	}
+
+	@Test
+	void forkJoinRunEqualsTheSequentialRun() {
+		GameSimulator.Stats parallel = GameSimulator.simulate(CONFIG, SEED);
+		GameSimulator.Stats sequential = GameSimulator.simulateSequentially(CONFIG, SEED);
+
+		assertArrayEquals(sequential.rollsHistogram, parallel.rollsHistogram);
+		assertArrayEquals(sequential.winsBySeat, parallel.winsBySeat);
+		assertEquals(sequential.games, parallel.games);
+		assertEquals(sequential.unfinished, parallel.unfinished);
+		assertEquals(sequential.miniGames, parallel.miniGames);
+		assertEquals(sequential.soloGames, parallel.soloGames);
+		assertEquals(sequential.soloWins, parallel.soloWins);
+	}
+
+}
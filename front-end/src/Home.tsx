@@ -45,6 +45,10 @@ export default function Home() {
                 });
             }
             setName(nicknameInput);
+        } else if (res.status === 409) {
+            alert('Ce pseudo est déjà pris.');
+        } else {
+            alert('Pseudo invalide.');
         }
         setLoading(false);
     };
@@ -55,6 +59,7 @@ export default function Home() {
         const ok = await createRoom(id);
         setLoadingCreate(false);
         if (ok) navigate(`/lobby/${id}`, { state: { name } });
+        else alert('Impossible de créer la room, réessaie.');
     };
 
     const handleJoin = async () => {
@@ -1,13 +1,23 @@
 import { useLocation, useParams, useNavigate } from 'react-router-dom';
 import { useLobbySocket } from './hooks/useLobbySocket';
-import { useEffect } from 'react';
+import { FormEvent, useEffect, useState } from 'react';
 
 export default function Lobby() {
   const { roomId } = useParams();
   const location = useLocation();
   const navigate = useNavigate();
   const name = (location.state as any)?.name || 'Anonyme';
-  const { players, startGame, started } = useLobbySocket(roomId!, name);
+  const { players, startGame, started, messages, sendChat } = useLobbySocket(
+    roomId!,
+    name,
+  );
+  const [chatInput, setChatInput] = useState('');
+
+  const handleSendChat = (e: FormEvent) => {
+    e.preventDefault();
+    sendChat(chatInput);
+    setChatInput('');
+  };
 
   useEffect(() => {
     if (started) {
@@ -38,6 +48,34 @@ export default function Lobby() {
           </ul>
         </div>
 
+        <div className="mb-6 text-left">
+          <div className="h-40 overflow-y-auto border rounded-lg p-2 text-sm bg-gray-50">
+            {messages.map((message, index) => (
+              <p key={index}>
+                <span className="font-semibold text-purple-600">
+                  {message.sender}
+                </span>{' '}
+                : {message.text}
+              </p>
+            ))}
+          </div>
+          <form onSubmit={handleSendChat} className="flex mt-2 gap-2">
+            <input
+              value={chatInput}
+              onChange={(e) => setChatInput(e.target.value)}
+              maxLength={280}
+              placeholder="Message..."
+              className="flex-1 border rounded-lg px-2 py-1"
+            />
+            <button
+              type="submit"
+              className="bg-purple-600 text-white px-3 rounded-lg hover:bg-purple-700 transition"
+            >
+              Envoyer
+            </button>
+          </form>
+        </div>
+
         <button
           onClick={startGame}
           className="bg-purple-600 text-white py-2 px-6 rounded-lg hover:bg-purple-700 transition"
@@ -0,0 +1,5 @@
+export interface ChatMessageDTO {
+  sender: string;
+  text: string;
+  sentAt: number;
+}
@@ -0,0 +1,13 @@
+import { GameStateDTO } from './GameStateDTO';
+
+export interface ReplayedMessageDTO {
+  seq: number;
+  destination: string;
+  payload: unknown;
+}
+
+export interface ResumeDTO {
+  seq: number;
+  snapshot: GameStateDTO | null;
+  missed: ReplayedMessageDTO[];
+}
@@ -1,11 +1,12 @@
 import { useEffect, useState, useRef } from 'react';
-import { Client } from '@stomp/stompjs';
+import { Client, IMessage } from '@stomp/stompjs';
 import { GameStateDTO } from '../dto/GameStateDTO';
 import { WS_BASE } from '../services/constants';
 import {
   MiniGameInstructionDTO,
   MiniGameOutcomeDTO,
 } from '../dto/MiniGameInstructionDTO';
+import { ResumeDTO } from '../dto/ResumeDTO';
 
 export function useGameSocket(roomId: string) {
   const [gameState, setGameState] = useState<GameStateDTO | null>(null);
@@ -15,7 +16,17 @@ export function useGameSocket(roomId: string) {
     useState<MiniGameOutcomeDTO | null>(null);
 
   const stompRef = useRef<Client | null>(null);
+  // last broadcast sequence number seen, survives reconnects of the same room
+  const lastSeqRef = useRef<number>(-1);
   useEffect(() => {
+    lastSeqRef.current = -1;
+    const trackSeq = (message: IMessage) => {
+      const seq = Number(message.headers['seq']);
+      if (!Number.isNaN(seq)) {
+        lastSeqRef.current = Math.max(lastSeqRef.current, seq);
+      }
+    };
+
     const token = localStorage.getItem('jwt');
     if (!token) {
       console.error('No JWT token found in localStorage.');
@@ -28,10 +39,15 @@ export function useGameSocket(roomId: string) {
       reconnectDelay: 5000,
       onConnect: () => {
         stomp.subscribe(`/topic/game/${roomId}`, (message) => {
+          trackSeq(message);
           const state = JSON.parse(message.body);
           console.log(state);
           setGameState(state);
         });
+        // ping replies are sent to this session only
+        stomp.subscribe(`/user/queue/game/${roomId}`, (message) => {
+          setGameState(JSON.parse(message.body));
+        });
         stomp.subscribe(`/topic/game/${roomId}/init`, (msg) => {
           const state: GameStateDTO = JSON.parse(msg.body);
           console.log(`Game initialized: ${JSON.stringify(state)}`);
@@ -40,8 +56,9 @@ export function useGameSocket(roomId: string) {
         });
         stomp.subscribe(
           `/topic/game/${roomId}/minigame/instruction`,
-          ({ body }) => {
-            const instr = JSON.parse(body) as MiniGameInstructionDTO;
+          (message) => {
+            trackSeq(message);
+            const instr = JSON.parse(message.body) as MiniGameInstructionDTO;
             console.log(
               `Received mini-game instruction: ${JSON.stringify(instr)}`,
             );
@@ -51,14 +68,45 @@ export function useGameSocket(roomId: string) {
         );
         stomp.subscribe(
           `/topic/game/${roomId}/minigame/outcome`,
-          ({ body }) => {
-            const outcome = JSON.parse(body) as MiniGameOutcomeDTO;
+          (message) => {
+            trackSeq(message);
+            const outcome = JSON.parse(message.body) as MiniGameOutcomeDTO;
             setMiniGameOutcome(outcome);
           },
         );
+        // server is about to restart: spread the reconnects of all clients
+        stomp.subscribe(`/topic/game/${roomId}/reconnect`, ({ body }) => {
+          const { minDelayMs, maxDelayMs } = JSON.parse(body);
+          stomp.reconnectDelay =
+            minDelayMs + Math.floor(Math.random() * (maxDelayMs - minDelayMs));
+        });
+        // replies with what we missed while disconnected, or a snapshot
+        stomp.subscribe(`/user/queue/game/${roomId}/resume`, ({ body }) => {
+          const resume = JSON.parse(body) as ResumeDTO;
+          if (resume.snapshot) {
+            setGameState(resume.snapshot);
+            // the snapshot covers everything up to resume.seq, which may be lower than ours after a server restart
+            lastSeqRef.current = resume.seq;
+            return;
+          }
+          for (const missed of resume.missed) {
+            if (missed.seq <= lastSeqRef.current) {
+              continue; // already received live since we subscribed
+            }
+            if (missed.destination.endsWith('/minigame/instruction')) {
+              setMiniGameInstr(missed.payload as MiniGameInstructionDTO);
+            } else if (missed.destination.endsWith('/minigame/outcome')) {
+              setMiniGameOutcome(missed.payload as MiniGameOutcomeDTO);
+            } else {
+              setGameState(missed.payload as GameStateDTO);
+            }
+            lastSeqRef.current = missed.seq;
+          }
+          lastSeqRef.current = Math.max(lastSeqRef.current, resume.seq);
+        });
         stomp.publish({
-          destination: `/app/game/${roomId}/ping`,
-          body: '{}',
+          destination: `/app/game/${roomId}/resume`,
+          body: JSON.stringify({ lastSeq: lastSeqRef.current }),
         });
       },
     });
@@ -1,10 +1,28 @@
 import { useEffect, useState } from 'react';
 import { Client } from '@stomp/stompjs';
 import { WS_BASE } from '../services/constants';
+import { ChatMessageDTO } from '../dto/ChatMessageDTO';
+
+// the server keeps the last 50 messages of a lobby
+const CHAT_HISTORY = 50;
+
+// a batch can arrive before the history reply that already contains it: keep one copy of each message
+function mergeChat(older: ChatMessageDTO[], newer: ChatMessageDTO[]): ChatMessageDTO[] {
+  const seen = new Set<string>();
+  return [...older, ...newer]
+    .filter((message) => {
+      const key = `${message.sentAt}|${message.sender}`;
+      if (seen.has(key)) return false;
+      seen.add(key);
+      return true;
+    })
+    .slice(-CHAT_HISTORY);
+}
 
 export function useLobbySocket(roomId: string, user: string) {
   const [players, setPlayers] = useState<string[]>([]);
   const [started, setStarted] = useState<boolean>(false);
+  const [messages, setMessages] = useState<ChatMessageDTO[]>([]);
 
   const [client, setClient] = useState<Client | null>(null);
 
@@ -28,6 +46,19 @@ export function useLobbySocket(roomId: string, user: string) {
         stomp.subscribe(`/topic/lobby/${roomId}/start`, () => {
           setStarted(true);
         });
+        // new messages arrive in batches
+        stomp.subscribe(`/topic/lobby/${roomId}/chat`, (message) => {
+          const batch: ChatMessageDTO[] = JSON.parse(message.body);
+          setMessages((prev) => mergeChat(prev, batch));
+        });
+        stomp.subscribe(`/user/queue/lobby/${roomId}/chat`, (message) => {
+          const history: ChatMessageDTO[] = JSON.parse(message.body);
+          setMessages((prev) => mergeChat(history, prev));
+        });
+        stomp.publish({
+          destination: `/app/lobby/${roomId}/chat/history`,
+          body: '{}',
+        });
         stomp.publish({
           destination: `/app/lobby/join/${roomId}`,
           body: JSON.stringify({ username: user }),
@@ -55,5 +86,14 @@ export function useLobbySocket(roomId: string, user: string) {
       });
     }
   }
-  return { players, startGame, started };
+
+  function sendChat(text: string) {
+    if (client && client.connected && text.trim()) {
+      client.publish({
+        destination: `/app/lobby/${roomId}/chat`,
+        body: JSON.stringify({ text }),
+      });
+    }
+  }
+  return { players, startGame, started, messages, sendChat };
 }